@@ -0,0 +1,63 @@
+-- Convert activity_logs into a table range-partitioned by month on created_at (PostgreSQL)
+-- Run once with psql during a maintenance window, with the backend stopped: the whole table is
+-- copied inside one transaction and activity_logs is locked until it commits.
+-- Afterwards the backend's retention job (activity-log.retention.cron) creates the partitions
+-- of the coming months and drops archived ones; it keeps working on an unconverted table too.
+
+BEGIN;
+
+ALTER TABLE activity_logs RENAME TO activity_logs_legacy;
+
+CREATE SEQUENCE IF NOT EXISTS activity_logs_partitioned_id_seq;
+
+CREATE TABLE activity_logs (
+    id BIGINT NOT NULL DEFAULT nextval('activity_logs_partitioned_id_seq'),
+    user_id BIGINT NOT NULL,
+    activity_type VARCHAR(255) NOT NULL,
+    entity_type VARCHAR(255) NOT NULL,
+    entity_id BIGINT,
+    description VARCHAR(255) NOT NULL,
+    metadata VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE activity_logs_partitioned_id_seq OWNED BY activity_logs.id;
+
+-- Rows outside every monthly partition land here
+CREATE TABLE activity_logs_default PARTITION OF activity_logs DEFAULT;
+
+-- One partition per month, from the oldest row to next month (named like the retention job's)
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    FOR month IN
+        SELECT generate_series(
+            date_trunc('month', COALESCE((SELECT MIN(created_at) FROM activity_logs_legacy), now())),
+            date_trunc('month', now()) + INTERVAL '1 month',
+            INTERVAL '1 month')::date
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF activity_logs FOR VALUES FROM (%L) TO (%L)',
+            'activity_logs_y' || to_char(month, 'YYYY') || 'm' || to_char(month, 'MM'),
+            month, (month + INTERVAL '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO activity_logs (id, user_id, activity_type, entity_type, entity_id, description, metadata, created_at)
+SELECT id, user_id, activity_type, entity_type, entity_id, description, metadata, created_at
+FROM activity_logs_legacy;
+
+SELECT setval('activity_logs_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM activity_logs), 0) + 1, false);
+
+DROP TABLE activity_logs_legacy;
+
+-- Same names as the entity's index definitions, created on every partition
+CREATE INDEX IF NOT EXISTS idx_activity_logs_user_created_id ON activity_logs (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_activity_logs_user_type_created_id ON activity_logs (user_id, entity_type, created_at, id);
+
+COMMIT;
+
+-- Verify: every row is in a monthly partition (the default one should be empty)
+SELECT tableoid::regclass AS partition, COUNT(*) FROM activity_logs GROUP BY 1 ORDER BY 1;
@@ -0,0 +1,124 @@
+-- Compare the LIKE search with the trigram search mode (search.database-mode=trigram) on every
+-- searched table: clients, projects, project_documents and users.
+-- Run with psql against a scratch PostgreSQL database where the application has created its tables.
+-- Everything runs in one transaction that is rolled back at the end, so the indexes are built here
+-- with plain CREATE INDEX; production uses SEARCH_TRIGRAM_INDEXES.sql (CREATE INDEX CONCURRENTLY).
+-- Each EXPLAIN pair should go from a sequential scan to a bitmap OR of the trigram indexes.
+
+BEGIN;
+
+-- 200k users, and for the first of them 1M clients, 1M projects and 1M documents
+INSERT INTO users (username, email, password, first_name, last_name, role, status, created_at)
+SELECT 'bench_' || g, 'bench' || g || '@' || substr(md5((g * 17)::text), 1, 8) || '.example.com', 'x',
+       'First' || substr(md5((g * 3)::text), 1, 8), 'Last' || substr(md5((g * 5)::text), 1, 8),
+       'USER', 'ACTIVE', now()
+FROM generate_series(1, 200000) AS g;
+
+INSERT INTO clients (company_name, contact_person, email, status, type, created_at, user_id)
+SELECT 'Company ' || md5(g::text),
+       'Contact ' || substr(md5((g * 7)::text), 1, 12),
+       'client' || g || '@' || substr(md5((g * 13)::text), 1, 8) || '.example.com',
+       'ACTIVE', 'COMPANY', now(),
+       (SELECT id FROM users WHERE username = 'bench_1')
+FROM generate_series(1, 1000000) AS g;
+
+INSERT INTO projects (title, description, technologies, status, type, created_at, user_id, client_id)
+SELECT 'Project ' || md5((g * 11)::text),
+       'Delivers ' || md5((g * 19)::text) || ' for ' || substr(md5((g * 23)::text), 1, 10),
+       'java, ' || substr(md5((g * 29)::text), 1, 6),
+       'PLANNING', 'WEB_DEVELOPMENT', now(),
+       (SELECT id FROM users WHERE username = 'bench_1'),
+       (SELECT MIN(id) FROM clients WHERE user_id = (SELECT id FROM users WHERE username = 'bench_1'))
+FROM generate_series(1, 1000000) AS g;
+
+INSERT INTO project_documents (title, description, type, status, created_at, user_id, project_id)
+SELECT 'Document ' || md5((g * 31)::text),
+       'Notes ' || md5((g * 37)::text),
+       'PROPOSAL', 'DRAFT', now(),
+       (SELECT id FROM users WHERE username = 'bench_1'),
+       (SELECT MIN(id) FROM projects WHERE user_id = (SELECT id FROM users WHERE username = 'bench_1'))
+FROM generate_series(1, 1000000) AS g;
+
+ANALYZE users;
+ANALYZE clients;
+ANALYZE projects;
+ANALYZE project_documents;
+
+-- LIKE mode: sequential scans
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM clients c
+WHERE c.user_id = (SELECT id FROM users WHERE username = 'bench_1')
+  AND (lower(c.company_name) LIKE '%4f2a9%' OR lower(c.contact_person) LIKE '%4f2a9%' OR lower(c.email) LIKE '%4f2a9%')
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM projects p
+WHERE p.user_id = (SELECT id FROM users WHERE username = 'bench_1')
+  AND (lower(p.title) LIKE '%4f2a9%' OR lower(p.description) LIKE '%4f2a9%' OR lower(p.technologies) LIKE '%4f2a9%')
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT pd.* FROM project_documents pd
+WHERE pd.user_id = (SELECT id FROM users WHERE username = 'bench_1')
+  AND (lower(pd.title) LIKE '%4f2a9%' OR lower(pd.description) LIKE '%4f2a9%')
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.* FROM users u
+WHERE lower(u.first_name) LIKE '%4f2a9%' OR lower(u.last_name) LIKE '%4f2a9%'
+   OR lower(u.username) LIKE '%4f2a9%' OR lower(u.email) LIKE '%4f2a9%'
+LIMIT 20;
+
+-- The indexes of SEARCH_TRIGRAM_INDEXES.sql
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_clients_company_name_trgm ON clients USING gin (lower(company_name) gin_trgm_ops);
+CREATE INDEX idx_clients_contact_person_trgm ON clients USING gin (lower(contact_person) gin_trgm_ops);
+CREATE INDEX idx_clients_email_trgm ON clients USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX idx_projects_title_trgm ON projects USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_projects_description_trgm ON projects USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX idx_projects_technologies_trgm ON projects USING gin (lower(technologies) gin_trgm_ops);
+CREATE INDEX idx_project_documents_title_trgm ON project_documents USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX idx_project_documents_description_trgm ON project_documents USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+ANALYZE users;
+ANALYZE clients;
+ANALYZE projects;
+ANALYZE project_documents;
+
+-- Trigram mode: the ranked queries of the repositories
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT c.* FROM clients c
+WHERE c.user_id = (SELECT id FROM users WHERE username = 'bench_1')
+  AND (lower(c.company_name) LIKE '%4f2a9%' OR lower(c.contact_person) LIKE '%4f2a9%' OR lower(c.email) LIKE '%4f2a9%')
+ORDER BY GREATEST(word_similarity('4f2a9', lower(c.company_name)), word_similarity('4f2a9', lower(c.contact_person)),
+                  word_similarity('4f2a9', lower(c.email))) DESC, c.id
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT p.* FROM projects p
+WHERE p.user_id = (SELECT id FROM users WHERE username = 'bench_1')
+  AND (lower(p.title) LIKE '%4f2a9%' OR lower(p.description) LIKE '%4f2a9%' OR lower(p.technologies) LIKE '%4f2a9%')
+ORDER BY GREATEST(word_similarity('4f2a9', lower(p.title)), word_similarity('4f2a9', lower(p.technologies)),
+                  word_similarity('4f2a9', lower(p.description)) / 2) DESC, p.id
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT pd.* FROM project_documents pd
+WHERE pd.user_id = (SELECT id FROM users WHERE username = 'bench_1')
+  AND (lower(pd.title) LIKE '%4f2a9%' OR lower(pd.description) LIKE '%4f2a9%')
+ORDER BY GREATEST(word_similarity('4f2a9', lower(pd.title)), word_similarity('4f2a9', lower(pd.description)) / 2) DESC, pd.id
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.* FROM users u
+WHERE lower(u.first_name) LIKE '%4f2a9%' OR lower(u.last_name) LIKE '%4f2a9%'
+   OR lower(u.username) LIKE '%4f2a9%' OR lower(u.email) LIKE '%4f2a9%'
+ORDER BY GREATEST(word_similarity('4f2a9', lower(u.first_name)), word_similarity('4f2a9', lower(u.last_name)),
+                  word_similarity('4f2a9', lower(u.username)), word_similarity('4f2a9', lower(u.email))) DESC, u.id
+LIMIT 20;
+
+ROLLBACK;
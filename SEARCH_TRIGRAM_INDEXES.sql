@@ -0,0 +1,29 @@
+-- Trigram indexes for search.database-mode=trigram (PostgreSQL)
+-- Run once with psql before switching the mode on. Every index is built with CREATE INDEX
+-- CONCURRENTLY, so the tables stay writable while it runs; CONCURRENTLY cannot run inside a
+-- transaction block, so run the file as is (psql autocommit), not wrapped in BEGIN/COMMIT.
+-- Until every index below exists and is valid the backend keeps using the LIKE search.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_company_name_trgm ON clients USING gin (lower(company_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_contact_person_trgm ON clients USING gin (lower(contact_person) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_email_trgm ON clients USING gin (lower(email) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_title_trgm ON projects USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_description_trgm ON projects USING gin (lower(description) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_technologies_trgm ON projects USING gin (lower(technologies) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_project_documents_title_trgm ON project_documents USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_project_documents_description_trgm ON project_documents USING gin (lower(description) gin_trgm_ops);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+-- Verify: a failed concurrent build leaves an INVALID index behind that IF NOT EXISTS skips.
+-- Drop any listed here with DROP INDEX CONCURRENTLY and run this file again.
+SELECT c.relname AS invalid_index
+FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+WHERE c.relname LIKE 'idx\_%\_trgm' AND NOT i.indisvalid;
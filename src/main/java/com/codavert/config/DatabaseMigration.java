@@ -2,6 +2,7 @@ package com.codavert.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.codavert.service.DatabaseSearchMode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
@@ -17,6 +18,9 @@ public class DatabaseMigration implements CommandLineRunner {
     @Autowired
     private JdbcTemplate jdbcTemplate;
     
+    @Autowired
+    private DatabaseSearchMode databaseSearchMode;
+    
     @Override
     public void run(String... args) {
         try {
@@ -24,6 +28,8 @@ public class DatabaseMigration implements CommandLineRunner {
             updateUsersRoleConstraint();
             // Update job_applications_status_check constraint to include OFFER_ACCEPTED
             updateJobApplicationsStatusConstraint();
+            // Trigram indexes for the search endpoints (trigram search mode on PostgreSQL only)
+            checkSearchIndexes();
             logger.info("✅ Database migration completed successfully");
         } catch (Exception e) {
             logger.warn("Database migration warning: {}", e.getMessage());
@@ -52,7 +58,7 @@ public class DatabaseMigration implements CommandLineRunner {
                 "CHECK (role IN ('ADMIN', 'USER', 'CLIENT', 'STAFF'))"
             );
             logger.info("Created users_role_check constraint with STAFF role");
-            
+        
         } catch (Exception e) {
             // Constraint might not exist yet or table might not exist
             // Try to create it anyway (using IF NOT EXISTS approach)
@@ -72,6 +78,14 @@ public class DatabaseMigration implements CommandLineRunner {
         }
     }
     
+    private void checkSearchIndexes() {
+        try {
+            databaseSearchMode.checkIndexes();
+        } catch (Exception e) {
+            logger.warn("Could not check trigram search indexes: {}", e.getMessage());
+        }
+    }
+    
     private void updateJobApplicationsStatusConstraint() {
         try {
             // Check if constraint exists
@@ -93,7 +107,7 @@ public class DatabaseMigration implements CommandLineRunner {
                 "CHECK (status IN ('NEW', 'REVIEWING', 'SHORTLISTED', 'INTERVIEWED', 'HIRED', 'OFFER_ACCEPTED', 'REJECTED', 'WITHDRAWN'))"
             );
             logger.info("Created job_applications_status_check constraint with OFFER_ACCEPTED status");
-            
+        
         } catch (Exception e) {
             // Constraint might not exist yet or table might not exist
             // Try to create it anyway
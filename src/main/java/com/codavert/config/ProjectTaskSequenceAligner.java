@@ -0,0 +1,70 @@
+package com.codavert.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves project_tasks_seq past the ids handed out by the former identity column of project_tasks,
+ * so new tasks never reuse one. Runs as a lifecycle bean in an early phase: after the schema is
+ * in place, but before the web server starts taking requests that could insert tasks.
+ *
+ * PostgreSQL only; H2 (local runs) creates the sequence together with the table.
+ */
+@Component
+public class ProjectTaskSequenceAligner implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectTaskSequenceAligner.class);
+
+    // The web server starts in phase DEFAULT_PHASE - 1024; this runs well before it
+    private static final int PHASE = 0;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+        try {
+            if (databasePlatform.isPostgres()) {
+                align();
+            }
+        } catch (Exception e) {
+            logger.error("Could not align project_tasks_seq; new tasks may collide with existing ids: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM project_tasks", Long.class);
+        Long lastValue = jdbcTemplate.queryForObject("SELECT last_value FROM project_tasks_seq", Long.class);
+
+        // With the pooled optimizer the next block starts right after the value set here
+        if (maxId != null && lastValue != null && lastValue < maxId) {
+            jdbcTemplate.queryForObject("SELECT setval('project_tasks_seq', ?)", Long.class, maxId);
+            logger.info("Moved project_tasks_seq to {}", maxId);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.codavert.config;
+
+import com.codavert.service.TimesheetRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the timesheet rollup from the existing time entries the first time the application
+ * starts with it. Runs as a lifecycle bean in an early phase, before the web server takes
+ * requests that write time entries; the build itself is guarded by a persisted marker, so it
+ * happens once per database.
+ */
+@Component
+public class TimesheetRollupBootstrap implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimesheetRollupBootstrap.class);
+
+    // The web server starts in phase DEFAULT_PHASE - 1024; this runs well before it
+    private static final int PHASE = 0;
+
+    @Autowired
+    private TimesheetRollupService timesheetRollupService;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        running = true;
+        try {
+            timesheetRollupService.buildOnce();
+        } catch (Exception e) {
+            logger.error("Could not build the timesheet rollup; time statistics will miss existing entries: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
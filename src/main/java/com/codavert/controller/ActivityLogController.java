@@ -1,16 +1,22 @@
 package com.codavert.controller;
 
 import com.codavert.dto.ActivityLogDto;
+import com.codavert.dto.CursorPageDto;
 import com.codavert.entity.ActivityLog;
 import com.codavert.security.UserPrincipal;
 import com.codavert.service.ActivityLogService;
+import com.codavert.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,6 +26,9 @@ public class ActivityLogController {
     @Autowired
     private ActivityLogService activityLogService;
 
+    @Autowired
+    private AuthService authService;
+
     @GetMapping
     public ResponseEntity<Page<ActivityLogDto>> getUserActivities(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
@@ -31,6 +40,46 @@ public class ActivityLogController {
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<?> getActivityFeed(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) ActivityLog.EntityType entityType,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        try {
+            CursorPageDto<ActivityLogDto> feed = activityLogService.getActivityFeed(
+                    userPrincipal.getId(), entityType, cursor, Math.min(Math.max(limit, 1), 100));
+            return ResponseEntity.ok(feed);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Browser EventSource clients open the stream with ?access_token= from POST /stream-token, since they
+    // cannot send an Authorization header, and pass lastEventId when they reopen it themselves
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamActivities(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        
+        return activityLogService.streamActivities(userPrincipal.getId(), lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+
+    @PostMapping("/stream-token")
+    public ResponseEntity<?> createStreamToken(@RequestHeader("Authorization") String token) {
+        try {
+            String jwt = token.startsWith("Bearer ") ? token.substring(7) : token;
+            Map<String, Object> response = new HashMap<>();
+            response.put("token", authService.issueStreamToken(jwt));
+            response.put("expiresInSeconds", authService.getStreamTokenTtlSeconds());
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/recent")
     public ResponseEntity<List<ActivityLogDto>> getRecentActivities(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
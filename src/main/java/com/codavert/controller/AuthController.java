@@ -2,9 +2,11 @@ package com.codavert.controller;
 
 import com.codavert.dto.JwtResponseDto;
 import com.codavert.dto.LoginRequestDto;
+import com.codavert.dto.ProfileUpdateResponseDto;
 import com.codavert.dto.UserUpdateDto;
 import com.codavert.dto.UserRegistrationDto;
 import com.codavert.entity.User;
+import com.codavert.security.PasswordHashingExecutor;
 import com.codavert.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,6 +19,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -85,14 +89,29 @@ public class AuthController {
                     """
                 )
             )
+        ),
+        @ApiResponse(
+            responseCode = "503",
+            description = "Too many sign-ins in progress; retry after the Retry-After delay",
+            content = @Content(
+                mediaType = "text/plain",
+                examples = @ExampleObject(
+                    name = "Busy Response",
+                    value = "Too many sign-in attempts. Please try again shortly."
+                )
+            )
         )
     })
     @PostMapping("/signin")
     public ResponseEntity<?> authenticateUser(
         @Parameter(description = "Login credentials", required = true)
         @Valid @RequestBody LoginRequestDto loginRequest) {
-        JwtResponseDto jwtResponse = authService.authenticateUser(loginRequest);
-        return ResponseEntity.ok(jwtResponse);
+        try {
+            JwtResponseDto jwtResponse = authService.authenticateUser(loginRequest);
+            return ResponseEntity.ok(jwtResponse);
+        } catch (PasswordHashingExecutor.BusyException e) {
+            return busy(e);
+        }
     }
     
     @Operation(
@@ -139,6 +158,8 @@ public class AuthController {
         try {
             User user = authService.registerUser(signUpRequest);
             return ResponseEntity.ok("User registered successfully!");
+        } catch (PasswordHashingExecutor.BusyException e) {
+            return busy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -214,10 +235,10 @@ public class AuthController {
     @ApiResponses(value = {
         @ApiResponse(
             responseCode = "200",
-            description = "Profile updated successfully",
+            description = "Profile updated successfully; use the returned token from now on",
             content = @Content(
                 mediaType = "application/json",
-                schema = @Schema(implementation = User.class),
+                schema = @Schema(implementation = ProfileUpdateResponseDto.class),
                 examples = @ExampleObject(
                     name = "Success Response",
                     value = """
@@ -227,7 +248,9 @@ public class AuthController {
                         "email": "admin@codavert.com",
                         "roles": ["ROLE_ADMIN"],
                         "createdAt": "2024-01-01T00:00:00",
-                        "updatedAt": "2024-01-01T12:00:00"
+                        "updatedAt": "2024-01-01T12:00:00",
+                        "token": "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...",
+                        "tokenExpiresAt": "2024-01-02T12:00:00"
                     }
                     """
                 )
@@ -277,11 +300,20 @@ public class AuthController {
                 .orElseThrow(() -> new RuntimeException("User not found"));
             
             User updatedUser = authService.updateUserProfile(user.getId(), updateRequest);
-            return ResponseEntity.ok(updatedUser);
+            // A changed username, email or password revokes the caller's token, so hand out a new one
+            JwtResponseDto jwtResponse = authService.issueToken(updatedUser);
+            return ResponseEntity.ok(new ProfileUpdateResponseDto(updatedUser, jwtResponse.getToken(), jwtResponse.getExpiresAt()));
+        } catch (PasswordHashingExecutor.BusyException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
+    // Password hashing is saturated; the client should retry shortly
+    private ResponseEntity<?> busy(PasswordHashingExecutor.BusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").body(e.getMessage());
+    }
+    
     // deprecated helper removed in favor of JwtUtils via AuthService
 }
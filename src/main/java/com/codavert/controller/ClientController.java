@@ -102,7 +102,7 @@ public class ClientController {
     
     @Operation(
         summary = "Get Client Details",
-        description = "Retrieve comprehensive client details including projects, invoices, documents, and statistics.",
+        description = "Retrieve client details with statistics and the first page of its projects, invoices and documents. The full sections are paged at /{id}/projects, /{id}/invoices and /{id}/documents.",
         operationId = "getClientDetails",
         security = @SecurityRequirement(name = "bearerAuth")
     )
@@ -141,6 +141,41 @@ public class ClientController {
         }
     }
     
+    // Paged sections of the client details; the details response holds only their first page
+    @GetMapping("/{id}/projects")
+    public ResponseEntity<?> getClientProjects(@PathVariable Long id, @RequestParam Long userId, Pageable pageable) {
+        try {
+            return ResponseEntity.ok(clientService.getClientProjects(id, userId, pageable));
+        } catch (RuntimeException e) {
+            return sectionError(e);
+        }
+    }
+    
+    @GetMapping("/{id}/invoices")
+    public ResponseEntity<?> getClientInvoices(@PathVariable Long id, @RequestParam Long userId, Pageable pageable) {
+        try {
+            return ResponseEntity.ok(clientService.getClientInvoices(id, userId, pageable));
+        } catch (RuntimeException e) {
+            return sectionError(e);
+        }
+    }
+    
+    @GetMapping("/{id}/documents")
+    public ResponseEntity<?> getClientDocuments(@PathVariable Long id, @RequestParam Long userId, Pageable pageable) {
+        try {
+            return ResponseEntity.ok(clientService.getClientDocuments(id, userId, pageable));
+        } catch (RuntimeException e) {
+            return sectionError(e);
+        }
+    }
+    
+    private ResponseEntity<?> sectionError(RuntimeException e) {
+        if (e.getMessage() != null && e.getMessage().contains("not found")) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(403).body(e.getMessage());
+    }
+    
     @Operation(
         summary = "Create New Client",
         description = "Create a new client record for a specific user.",
@@ -0,0 +1,28 @@
+package com.codavert.controller;
+
+import com.codavert.dto.DashboardDto;
+import com.codavert.service.DashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // Project, client, invoice and task counts and totals for the dashboard in one call
+    @GetMapping
+    public ResponseEntity<DashboardDto> getDashboard(@RequestParam Long userId) {
+        try {
+            return ResponseEntity.ok(dashboardService.getDashboard(userId));
+        } catch (DashboardService.BusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+    }
+}
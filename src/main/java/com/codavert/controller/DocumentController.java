@@ -9,6 +9,8 @@ import com.codavert.service.DocumentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -112,6 +114,13 @@ public class DocumentController {
         return ResponseEntity.badRequest().build();
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<Page<ProjectDocument>> searchDocuments(@RequestParam Long userId,
+                                                                 @RequestParam String searchTerm,
+                                                                 Pageable pageable) {
+        return ResponseEntity.ok(documentService.searchDocuments(userId, searchTerm, pageable));
+    }
+
     @GetMapping("/project/{projectId}")
     public ResponseEntity<List<ProjectDocument>> getDocumentsByProject(@PathVariable Long projectId) {
         return ResponseEntity.ok(documentService.getDocumentsByProjectId(projectId));
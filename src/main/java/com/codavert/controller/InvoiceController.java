@@ -1,7 +1,10 @@
 package com.codavert.controller;
 
+import com.codavert.dto.InvoiceAnalyticsDto;
 import com.codavert.dto.InvoiceDto;
 import com.codavert.entity.Invoice;
+import com.codavert.repository.InvoiceRepository.InvoiceListItem;
+import com.codavert.service.InvoiceAnalyticsService;
 import com.codavert.service.InvoiceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -19,18 +22,27 @@ public class InvoiceController {
     @Autowired
     private InvoiceService invoiceService;
 
+    @Autowired
+    private InvoiceAnalyticsService invoiceAnalyticsService;
+
     @GetMapping
-    public ResponseEntity<Page<Invoice>> getInvoices(@RequestParam Long userId, Pageable pageable) {
+    public ResponseEntity<Page<InvoiceListItem>> getInvoices(@RequestParam Long userId, Pageable pageable) {
         return ResponseEntity.ok(invoiceService.getInvoicesByUserId(userId, pageable));
     }
     
     // Admin-only: fetch all invoices
     @GetMapping("/admin")
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<Invoice>> getAllInvoicesAdmin(Pageable pageable) {
+    public ResponseEntity<Page<InvoiceListItem>> getAllInvoicesAdmin(Pageable pageable) {
         return ResponseEntity.ok(invoiceService.getAllInvoices(pageable));
     }
 
+    // Monthly revenue, receivables aging and top clients by outstanding amount
+    @GetMapping("/analytics")
+    public ResponseEntity<InvoiceAnalyticsDto> getAnalytics(@RequestParam Long userId) {
+        return ResponseEntity.ok(invoiceAnalyticsService.getAnalytics(userId));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getInvoiceById(@PathVariable Long id) {
         return invoiceService.getInvoiceById(id)
@@ -39,13 +51,21 @@ public class InvoiceController {
     }
 
     @PostMapping
-    public ResponseEntity<Invoice> createInvoice(@RequestBody InvoiceDto dto) {
-        return ResponseEntity.ok(invoiceService.createInvoice(dto));
+    public ResponseEntity<?> createInvoice(@RequestBody InvoiceDto dto) {
+        try {
+            return ResponseEntity.ok(invoiceService.createInvoice(dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Invoice> updateInvoice(@PathVariable Long id, @RequestBody InvoiceDto dto) {
-        return ResponseEntity.ok(invoiceService.updateInvoice(id, dto));
+    public ResponseEntity<?> updateInvoice(@PathVariable Long id, @RequestBody InvoiceDto dto) {
+        try {
+            return ResponseEntity.ok(invoiceService.updateInvoice(id, dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/{id}")
@@ -66,7 +86,7 @@ public class InvoiceController {
     }
 
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<List<Invoice>> getInvoicesByProject(@PathVariable Long projectId) {
+    public ResponseEntity<List<InvoiceListItem>> getInvoicesByProject(@PathVariable Long projectId) {
         return ResponseEntity.ok(invoiceService.getInvoicesByProjectId(projectId));
     }
 }
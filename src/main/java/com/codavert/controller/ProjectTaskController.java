@@ -3,14 +3,18 @@ package com.codavert.controller;
 import com.codavert.dto.ProjectTaskDto;
 import com.codavert.dto.BulkTaskAssignmentDto;
 import com.codavert.dto.AssignedTaskViewDto;
+import com.codavert.dto.TaskBoardDto;
 import com.codavert.entity.Project;
 import com.codavert.entity.ProjectTask;
 import com.codavert.entity.ProjectTask.TaskStatus;
 import com.codavert.repository.ProjectRepository;
 import com.codavert.repository.ProjectTaskRepository;
-import com.codavert.repository.UserRepository;
 import com.codavert.service.ActivityLogService;
-import java.util.ArrayList;
+import com.codavert.service.DashboardService;
+import com.codavert.service.ProjectTaskStatisticsService;
+import com.codavert.service.TaskAssignmentService;
+import com.codavert.service.TaskBoardService;
+import com.codavert.service.TaskSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,11 +27,9 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -45,7 +47,19 @@ public class ProjectTaskController {
     private ActivityLogService activityLogService;
     
     @Autowired
-    private UserRepository userRepository;
+    private ProjectTaskStatisticsService taskStatisticsService;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private TaskAssignmentService taskAssignmentService;
+    
+    @Autowired
+    private TaskBoardService taskBoardService;
+    
+    @Autowired
+    private TaskSyncService taskSyncService;
     
     @GetMapping("/project/{projectId}")
     @Operation(summary = "Get all tasks for a project")
@@ -92,6 +106,8 @@ public class ProjectTaskController {
         task.setCompletedAt(taskDto.getCompletedAt());
         
         ProjectTask savedTask = taskRepository.save(task);
+        taskStatisticsService.invalidate(project.getId());
+        dashboardService.invalidateProject(project);
         
         // Log activity
         if (userId != null) {
@@ -124,6 +140,8 @@ public class ProjectTaskController {
                     if (taskDto.getCompletedAt() != null) task.setCompletedAt(taskDto.getCompletedAt());
                     
                     ProjectTask updatedTask = taskRepository.save(task);
+                    taskStatisticsService.invalidate(task.getProject().getId());
+                    dashboardService.invalidateProject(task.getProject());
                     
                     // Log activity
                     if (userId != null) {
@@ -147,47 +165,19 @@ public class ProjectTaskController {
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a task")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
+        Project project = taskSyncService.deleteTask(id);
+        if (project == null) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.notFound().build();
+        taskStatisticsService.invalidate(project.getId());
+        dashboardService.invalidateProject(project);
+        return ResponseEntity.noContent().build();
     }
     
     @GetMapping("/project/{projectId}/statistics")
     @Operation(summary = "Get task statistics for a project")
     public ResponseEntity<Map<String, Object>> getProjectTaskStatistics(@PathVariable Long projectId) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        long totalTasks = taskRepository.countByProject_Id(projectId);
-        long todoTasks = taskRepository.countByProject_IdAndStatus(projectId, TaskStatus.TODO);
-        long inProgressTasks = taskRepository.countByProject_IdAndStatus(projectId, TaskStatus.IN_PROGRESS);
-        long completedTasks = taskRepository.countByProject_IdAndStatus(projectId, TaskStatus.COMPLETED);
-        long blockedTasks = taskRepository.countByProject_IdAndStatus(projectId, TaskStatus.BLOCKED);
-        
-        stats.put("totalTasks", totalTasks);
-        stats.put("todoTasks", todoTasks);
-        stats.put("inProgressTasks", inProgressTasks);
-        stats.put("completedTasks", completedTasks);
-        stats.put("blockedTasks", blockedTasks);
-        
-        // Calculate progress percentage
-        double progress = totalTasks > 0 ? (double) completedTasks / totalTasks * 100 : 0;
-        stats.put("progressPercentage", Math.round(progress * 10.0) / 10.0);
-        
-        // Get overdue tasks
-        List<ProjectTask> overdueTasks = taskRepository.findOverdueTasks(projectId, LocalDate.now());
-        stats.put("overdueTasks", overdueTasks.size());
-        
-        // Get upcoming tasks (next 7 days)
-        List<ProjectTask> upcomingTasks = taskRepository.findUpcomingTasks(
-            projectId,
-            LocalDate.now(),
-            LocalDate.now().plusDays(7)
-        );
-        stats.put("upcomingTasks", upcomingTasks.size());
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(taskStatisticsService.getStatistics(projectId));
     }
     
     @GetMapping("/project/{projectId}/by-status")
@@ -200,6 +190,43 @@ public class ProjectTaskController {
         return ResponseEntity.ok(tasks);
     }
     
+    @GetMapping("/project/{projectId}/changes")
+    @Operation(summary = "Get tasks changed and deleted since a change token")
+    public ResponseEntity<?> getProjectTaskChanges(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String since) {
+        
+        try {
+            return ResponseEntity.ok(taskSyncService.getChanges(projectId, since));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @GetMapping("/project/{projectId}/board")
+    @Operation(summary = "Get the task board for a project, all status columns at once")
+    public ResponseEntity<TaskBoardDto> getProjectBoard(
+            @PathVariable Long projectId,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        return ResponseEntity.ok(taskBoardService.getBoard(projectId, Math.min(Math.max(limit, 1), 100)));
+    }
+    
+    @GetMapping("/project/{projectId}/board/{status}")
+    @Operation(summary = "Load more cards of one board column")
+    public ResponseEntity<?> getProjectBoardColumn(
+            @PathVariable Long projectId,
+            @PathVariable TaskStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        
+        try {
+            return ResponseEntity.ok(taskBoardService.getColumn(projectId, status, cursor, Math.min(Math.max(limit, 1), 100)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/project/{projectId}/overdue")
     @Operation(summary = "Get overdue tasks for a project")
     public ResponseEntity<List<ProjectTask>> getOverdueTasks(@PathVariable Long projectId) {
@@ -229,29 +256,8 @@ public class ProjectTaskController {
             @RequestParam(required = false) String status) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("dueDate").ascending());
-        Page<ProjectTask> tasks;
-        
-        if (projectId != null && status != null) {
-            tasks = taskRepository.findByProject_IdAndStatus(projectId, ProjectTask.TaskStatus.valueOf(status), pageable);
-        } else if (projectId != null) {
-            tasks = taskRepository.findByProject_Id(projectId, pageable);
-        } else if (status != null) {
-            tasks = taskRepository.findByStatus(ProjectTask.TaskStatus.valueOf(status), pageable);
-        } else {
-            tasks = taskRepository.findAll(pageable);
-        }
-        
-        Page<AssignedTaskViewDto> result = tasks.map(task -> {
-            String projectTitle = task.getProject() != null ? task.getProject().getTitle() : null;
-            Long empId = task.getAssignedToUserId();
-            if (empId == null) {
-                return AssignedTaskViewDto.from(task, projectTitle, null, null, null, null, null);
-            }
-            return userRepository.findById(empId)
-                    .map(u -> AssignedTaskViewDto.from(task, projectTitle, u.getId(),
-                            u.getFirstName(), u.getLastName(), u.getEmail(), u.getPhone()))
-                    .orElse(AssignedTaskViewDto.from(task, projectTitle, empId, null, null, null, null));
-        });
+        TaskStatus taskStatus = status != null ? TaskStatus.valueOf(status) : null;
+        Page<AssignedTaskViewDto> result = taskRepository.findAssignedTaskViews(projectId, taskStatus, pageable);
         
         return ResponseEntity.ok(result);
     }
@@ -267,6 +273,8 @@ public class ProjectTaskController {
                 .map(task -> {
                     task.setStatus(status);
                     ProjectTask updatedTask = taskRepository.save(task);
+                    taskStatisticsService.invalidate(task.getProject().getId());
+                    dashboardService.invalidateProject(task.getProject());
                     
                     // Log activity
                     if (userId != null) {
@@ -289,50 +297,10 @@ public class ProjectTaskController {
             @Valid @RequestBody BulkTaskAssignmentDto assignmentDto,
             @RequestParam(required = false) Long adminUserId) {
         
-        // Find the project
-        Project project = projectRepository.findById(assignmentDto.getProjectId())
-                .orElseThrow(() -> new RuntimeException("Project not found with id: " + assignmentDto.getProjectId()));
-        
-        // Validate users exist
-        List<Long> validUserIds = new ArrayList<>();
-        for (Long userId : assignmentDto.getUserIds()) {
-            if (userRepository.existsById(userId)) {
-                validUserIds.add(userId);
-            }
-        }
-        
-        if (validUserIds.isEmpty()) {
-            throw new RuntimeException("No valid users found for assignment");
-        }
-        
-        // Create tasks for each user
-        List<ProjectTask> createdTasks = new ArrayList<>();
-        String fullDescription = assignmentDto.getDescription();
-        if (assignmentDto.getMessage() != null && !assignmentDto.getMessage().trim().isEmpty()) {
-            fullDescription = (fullDescription != null ? fullDescription + "\n\n" : "") + 
-                            "Message: " + assignmentDto.getMessage();
-        }
-        
-        for (Long userId : validUserIds) {
-            ProjectTask task = new ProjectTask();
-            task.setProject(project);
-            task.setTitle(assignmentDto.getTitle());
-            task.setDescription(fullDescription);
-            task.setStatus(TaskStatus.TODO);
-            task.setPriority(assignmentDto.getPriority() != null ? assignmentDto.getPriority() : 
-                           ProjectTask.TaskPriority.MEDIUM);
-            task.setAssignedToUserId(userId);
-            task.setStartDate(assignmentDto.getStartDate());
-            task.setDueDate(assignmentDto.getDueDate());
-            task.setEstimatedHours(assignmentDto.getEstimatedHours());
-            
-            ProjectTask savedTask = taskRepository.save(task);
-            createdTasks.add(savedTask);
-            
-            // Log activity
-            if (adminUserId != null) {
-                activityLogService.logTaskCreated(adminUserId, savedTask.getId(), savedTask.getTitle());
-            }
+        List<ProjectTask> createdTasks = taskAssignmentService.bulkAssign(assignmentDto, adminUserId);
+        taskStatisticsService.invalidate(assignmentDto.getProjectId());
+        if (!createdTasks.isEmpty()) {
+            dashboardService.invalidateProject(createdTasks.get(0).getProject());
         }
         
         Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,48 @@
+package com.codavert.controller;
+
+import com.codavert.dto.SearchResultDto;
+import com.codavert.security.UserPrincipal;
+import com.codavert.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    // Ranked clients, projects and documents of the caller (and users, for admins) matching every word of q
+    @GetMapping
+    public ResponseEntity<?> search(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        Set<SearchIndexService.Type> typeFilter = EnumSet.noneOf(SearchIndexService.Type.class);
+        if (types != null) {
+            for (String type : types) {
+                try {
+                    typeFilter.add(SearchIndexService.Type.valueOf(type.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body("Unknown type: " + type);
+                }
+            }
+        }
+        boolean admin = userPrincipal.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+
+        List<SearchResultDto> results = searchIndexService.search(
+                userPrincipal.getId(), admin, q, typeFilter, Math.min(Math.max(limit, 1), 100));
+        return ResponseEntity.ok(results);
+    }
+}
@@ -1,6 +1,8 @@
 package com.codavert.controller;
 
 import com.codavert.dto.TimeEntryDto;
+import com.codavert.dto.TimeEntryImportResultDto;
+import com.codavert.dto.TimesheetMatrixDto;
 import com.codavert.entity.Project;
 import com.codavert.entity.ProjectTask;
 import com.codavert.entity.TimeEntry;
@@ -9,7 +11,11 @@ import com.codavert.repository.ProjectRepository;
 import com.codavert.repository.ProjectTaskRepository;
 import com.codavert.repository.TimeEntryRepository;
 import com.codavert.repository.UserRepository;
+import com.codavert.security.UserPrincipal;
 import com.codavert.service.ActivityLogService;
+import com.codavert.service.TimeEntryImportService;
+import com.codavert.service.TimesheetMatrixService;
+import com.codavert.service.TimesheetRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -18,8 +24,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -47,6 +57,15 @@ public class TimeEntryController {
     @Autowired
     private ActivityLogService activityLogService;
 
+    @Autowired
+    private TimesheetRollupService timesheetRollupService;
+
+    @Autowired
+    private TimeEntryImportService timeEntryImportService;
+
+    @Autowired
+    private TimesheetMatrixService timesheetMatrixService;
+
     @GetMapping
     @Operation(summary = "Get all time entries for a user")
     public ResponseEntity<Page<TimeEntryDto>> getUserTimeEntries(
@@ -60,6 +79,33 @@ public class TimeEntryController {
         return ResponseEntity.ok(dtos);
     }
 
+    @GetMapping("/timesheet")
+    @Operation(summary = "Get the weekly timesheet grid of hours per user, project and day")
+    public ResponseEntity<?> getWeeklyTimesheet(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String week,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long projectId) {
+        
+        // Admins and staff see everyone's hours; other users only their own
+        boolean privileged = userPrincipal.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority())
+                        || "ROLE_STAFF".equals(authority.getAuthority()));
+        try {
+            LocalDate day = TimesheetMatrixService.parseWeek(week);
+            TimesheetMatrixDto timesheet = timesheetMatrixService.getWeek(
+                    day, userId, projectId, userPrincipal.getId(), privileged);
+            return ResponseEntity.ok(timesheet);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            if (e.getMessage() != null && e.getMessage().contains("not found")) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.status(403).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get time entry by ID")
     public ResponseEntity<TimeEntryDto> getTimeEntry(@PathVariable Long id) {
@@ -140,6 +186,31 @@ public class TimeEntryController {
         return ResponseEntity.ok(TimeEntryDto.fromEntity(savedEntry));
     }
 
+    @PostMapping("/import")
+    @Operation(summary = "Import time entries from a CSV file")
+    public ResponseEntity<?> importTimeEntries(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long userId) throws IOException {
+        
+        TimeEntryImportResultDto result;
+        try {
+            result = timeEntryImportService.importCsv(file);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        
+        // One entry for the whole import rather than one per row
+        if (userId != null && result.getImportedCount() > 0) {
+            activityLogService.logActivity(userId,
+                com.codavert.entity.ActivityLog.ActivityType.CREATED,
+                com.codavert.entity.ActivityLog.EntityType.TIME_ENTRY,
+                null,
+                "Imported " + result.getImportedCount() + " time entries");
+        }
+        
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update a time entry")
     public ResponseEntity<TimeEntryDto> updateTimeEntry(
@@ -185,30 +256,20 @@ public class TimeEntryController {
     @GetMapping("/statistics/project/{projectId}")
     @Operation(summary = "Get time statistics for a project")
     public ResponseEntity<Map<String, Object>> getProjectTimeStatistics(@PathVariable Long projectId) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        Double totalApprovedHours = timeEntryRepository.sumApprovedHoursByProjectId(projectId);
-        long draftEntries = timeEntryRepository.countByProject_IdAndStatus(projectId, TimeEntry.EntryStatus.DRAFT);
-        long submittedEntries = timeEntryRepository.countByProject_IdAndStatus(projectId, TimeEntry.EntryStatus.SUBMITTED);
-        long approvedEntries = timeEntryRepository.countByProject_IdAndStatus(projectId, TimeEntry.EntryStatus.APPROVED);
-        
-        stats.put("totalApprovedHours", totalApprovedHours != null ? totalApprovedHours : 0.0);
-        stats.put("draftEntries", draftEntries);
-        stats.put("submittedEntries", submittedEntries);
-        stats.put("approvedEntries", approvedEntries);
-        stats.put("totalEntries", draftEntries + submittedEntries + approvedEntries);
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(timesheetRollupService.getProjectStatistics(projectId));
+    }
+
+    @GetMapping("/statistics/project/{projectId}/tasks")
+    @Operation(summary = "Get time statistics for a project and each of its tasks")
+    public ResponseEntity<Map<String, Object>> getProjectTimeStatisticsByTask(@PathVariable Long projectId) {
+        return ResponseEntity.ok(timesheetRollupService.getProjectStatisticsByTask(projectId));
     }
 
     @GetMapping("/statistics/task/{taskId}")
     @Operation(summary = "Get time statistics for a task")
     public ResponseEntity<Map<String, Object>> getTaskTimeStatistics(@PathVariable Long taskId) {
         Map<String, Object> stats = new HashMap<>();
-        
-        Double totalApprovedHours = timeEntryRepository.sumApprovedHoursByTaskId(taskId);
-        stats.put("totalApprovedHours", totalApprovedHours != null ? totalApprovedHours : 0.0);
-        
+        stats.put("totalApprovedHours", timesheetRollupService.getApprovedHoursForTask(taskId));
         return ResponseEntity.ok(stats);
     }
 
@@ -2,6 +2,8 @@ package com.codavert.controller;
 
 import com.codavert.entity.User;
 import com.codavert.repository.UserRepository;
+import com.codavert.security.TokenVersionRegistry;
+import com.codavert.service.DatabaseSearchMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +28,12 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    
+    @Autowired
+    private DatabaseSearchMode searchMode;
+    
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all users with pagination (Admin only)")
@@ -46,7 +54,10 @@ public class UserController {
         Page<User> users;
         
         if (search != null && !search.trim().isEmpty()) {
-            users = userRepository.searchUsers(search.trim(), pageable);
+            users = searchMode.isTrigram()
+                ? userRepository.searchUsersRanked(DatabaseSearchMode.term(search.trim()),
+                    DatabaseSearchMode.containsPattern(search.trim()), DatabaseSearchMode.unsorted(pageable))
+                : userRepository.searchUsers(search.trim(), pageable);
         } else if (role != null && !role.trim().isEmpty()) {
             try {
                 User.Role roleEnum = User.Role.valueOf(role.toUpperCase());
@@ -111,7 +122,10 @@ public class UserController {
         return userRepository.findById(id)
             .map(user -> {
                 user.setStatus(status);
-                return ResponseEntity.ok(userRepository.save(user));
+                user.revokeTokens();
+                User savedUser = userRepository.save(user);
+                tokenVersionRegistry.evict(savedUser.getId());
+                return ResponseEntity.ok(savedUser);
             })
             .orElse(ResponseEntity.notFound().build());
     }
@@ -122,6 +136,7 @@ public class UserController {
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         if (userRepository.existsById(id)) {
             userRepository.deleteById(id);
+            tokenVersionRegistry.evict(id);
             return ResponseEntity.ok("User deleted successfully");
         }
         return ResponseEntity.notFound().build();
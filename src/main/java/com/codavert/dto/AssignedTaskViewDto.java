@@ -27,34 +27,35 @@ public class AssignedTaskViewDto {
     public String employeeEmail;
     public String employeePhone;
     
-    public static AssignedTaskViewDto from(ProjectTask task, String projectTitle,
-                                           Long employeeId, String firstName, String lastName,
-                                           String email, String phone) {
-        AssignedTaskViewDto dto = new AssignedTaskViewDto();
-        dto.taskId = task.getId();
-        dto.title = task.getTitle();
-        dto.description = task.getDescription();
-        dto.status = task.getStatus() != null ? task.getStatus().name() : null;
-        dto.priority = task.getPriority() != null ? task.getPriority().name() : null;
-        dto.startDate = task.getStartDate();
-        dto.dueDate = task.getDueDate();
-        dto.completedAt = task.getCompletedAt();
-        dto.estimatedHours = task.getEstimatedHours();
-        dto.actualHours = task.getActualHours();
-        dto.createdAt = task.getCreatedAt();
-        dto.updatedAt = task.getUpdatedAt();
-        
-        dto.projectId = task.getProject() != null ? task.getProject().getId() : null;
-        dto.projectTitle = projectTitle;
-        
-        dto.employeeId = employeeId;
-        dto.employeeFirstName = firstName;
-        dto.employeeLastName = lastName;
-        dto.employeeEmail = email;
-        dto.employeePhone = phone;
-        return dto;
+    public AssignedTaskViewDto() {}
+    
+    // Used by the projection query in ProjectTaskRepository
+    public AssignedTaskViewDto(Long taskId, String title, String description,
+                               ProjectTask.TaskStatus status, ProjectTask.TaskPriority priority,
+                               LocalDate startDate, LocalDate dueDate, LocalDateTime completedAt,
+                               Double estimatedHours, Double actualHours,
+                               LocalDateTime createdAt, LocalDateTime updatedAt,
+                               Long projectId, String projectTitle,
+                               Long employeeId, String employeeFirstName, String employeeLastName,
+                               String employeeEmail, String employeePhone) {
+        this.taskId = taskId;
+        this.title = title;
+        this.description = description;
+        this.status = status != null ? status.name() : null;
+        this.priority = priority != null ? priority.name() : null;
+        this.startDate = startDate;
+        this.dueDate = dueDate;
+        this.completedAt = completedAt;
+        this.estimatedHours = estimatedHours;
+        this.actualHours = actualHours;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.projectId = projectId;
+        this.projectTitle = projectTitle;
+        this.employeeId = employeeId;
+        this.employeeFirstName = employeeFirstName;
+        this.employeeLastName = employeeLastName;
+        this.employeeEmail = employeeEmail;
+        this.employeePhone = employeePhone;
     }
 }
-
-
-
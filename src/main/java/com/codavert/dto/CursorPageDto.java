@@ -0,0 +1,44 @@
+package com.codavert.dto;
+
+import java.util.List;
+
+public class CursorPageDto<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CursorPageDto() {
+    }
+
+    public CursorPageDto(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,197 @@
+package com.codavert.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class DashboardDto {
+
+    private LocalDateTime generatedAt;
+    private ProjectSummaryDto projects;
+    private ClientSummaryDto clients;
+    private InvoiceSummaryDto invoices;
+    private TaskSummaryDto tasks;
+
+    // Getters and Setters
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+
+    public ProjectSummaryDto getProjects() {
+        return projects;
+    }
+
+    public void setProjects(ProjectSummaryDto projects) {
+        this.projects = projects;
+    }
+
+    public ClientSummaryDto getClients() {
+        return clients;
+    }
+
+    public void setClients(ClientSummaryDto clients) {
+        this.clients = clients;
+    }
+
+    public InvoiceSummaryDto getInvoices() {
+        return invoices;
+    }
+
+    public void setInvoices(InvoiceSummaryDto invoices) {
+        this.invoices = invoices;
+    }
+
+    public TaskSummaryDto getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(TaskSummaryDto tasks) {
+        this.tasks = tasks;
+    }
+
+    // Project counts and budgets, per status
+    public static class ProjectSummaryDto {
+        private long total;
+        private Map<String, Long> byStatus;
+        private BigDecimal totalBudget;
+        private Map<String, BigDecimal> budgetByStatus;
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public Map<String, Long> getByStatus() {
+            return byStatus;
+        }
+
+        public void setByStatus(Map<String, Long> byStatus) {
+            this.byStatus = byStatus;
+        }
+
+        public BigDecimal getTotalBudget() {
+            return totalBudget;
+        }
+
+        public void setTotalBudget(BigDecimal totalBudget) {
+            this.totalBudget = totalBudget;
+        }
+
+        public Map<String, BigDecimal> getBudgetByStatus() {
+            return budgetByStatus;
+        }
+
+        public void setBudgetByStatus(Map<String, BigDecimal> budgetByStatus) {
+            this.budgetByStatus = budgetByStatus;
+        }
+    }
+
+    // Client counts per status
+    public static class ClientSummaryDto {
+        private long total;
+        private Map<String, Long> byStatus;
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public Map<String, Long> getByStatus() {
+            return byStatus;
+        }
+
+        public void setByStatus(Map<String, Long> byStatus) {
+            this.byStatus = byStatus;
+        }
+    }
+
+    // Invoice counts and amounts per status; outstanding covers sent, viewed and overdue invoices
+    public static class InvoiceSummaryDto {
+        private long total;
+        private Map<String, Long> byStatus;
+        private Map<String, BigDecimal> amountByStatus;
+        private BigDecimal totalPaid;
+        private BigDecimal totalOutstanding;
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public Map<String, Long> getByStatus() {
+            return byStatus;
+        }
+
+        public void setByStatus(Map<String, Long> byStatus) {
+            this.byStatus = byStatus;
+        }
+
+        public Map<String, BigDecimal> getAmountByStatus() {
+            return amountByStatus;
+        }
+
+        public void setAmountByStatus(Map<String, BigDecimal> amountByStatus) {
+            this.amountByStatus = amountByStatus;
+        }
+
+        public BigDecimal getTotalPaid() {
+            return totalPaid;
+        }
+
+        public void setTotalPaid(BigDecimal totalPaid) {
+            this.totalPaid = totalPaid;
+        }
+
+        public BigDecimal getTotalOutstanding() {
+            return totalOutstanding;
+        }
+
+        public void setTotalOutstanding(BigDecimal totalOutstanding) {
+            this.totalOutstanding = totalOutstanding;
+        }
+    }
+
+    // Counts of tasks in the user's projects, per status
+    public static class TaskSummaryDto {
+        private long total;
+        private Map<String, Long> byStatus;
+        private long overdue;
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public Map<String, Long> getByStatus() {
+            return byStatus;
+        }
+
+        public void setByStatus(Map<String, Long> byStatus) {
+            this.byStatus = byStatus;
+        }
+
+        public long getOverdue() {
+            return overdue;
+        }
+
+        public void setOverdue(long overdue) {
+            this.overdue = overdue;
+        }
+    }
+}
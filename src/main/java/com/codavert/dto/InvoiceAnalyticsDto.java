@@ -0,0 +1,205 @@
+package com.codavert.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class InvoiceAnalyticsDto {
+
+    private LocalDate asOf;
+    private BigDecimal totalInvoiced;
+    private BigDecimal totalCollected;
+    private BigDecimal totalOutstanding;
+    private List<MonthDto> monthlyRevenue;
+    private List<AgingBucketDto> aging;
+    private List<ClientOutstandingDto> topClients;
+
+    // Constructors
+    public InvoiceAnalyticsDto() {}
+
+    // Getters and Setters
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public BigDecimal getTotalInvoiced() {
+        return totalInvoiced;
+    }
+
+    public void setTotalInvoiced(BigDecimal totalInvoiced) {
+        this.totalInvoiced = totalInvoiced;
+    }
+
+    public BigDecimal getTotalCollected() {
+        return totalCollected;
+    }
+
+    public void setTotalCollected(BigDecimal totalCollected) {
+        this.totalCollected = totalCollected;
+    }
+
+    public BigDecimal getTotalOutstanding() {
+        return totalOutstanding;
+    }
+
+    public void setTotalOutstanding(BigDecimal totalOutstanding) {
+        this.totalOutstanding = totalOutstanding;
+    }
+
+    public List<MonthDto> getMonthlyRevenue() {
+        return monthlyRevenue;
+    }
+
+    public void setMonthlyRevenue(List<MonthDto> monthlyRevenue) {
+        this.monthlyRevenue = monthlyRevenue;
+    }
+
+    public List<AgingBucketDto> getAging() {
+        return aging;
+    }
+
+    public void setAging(List<AgingBucketDto> aging) {
+        this.aging = aging;
+    }
+
+    public List<ClientOutstandingDto> getTopClients() {
+        return topClients;
+    }
+
+    public void setTopClients(List<ClientOutstandingDto> topClients) {
+        this.topClients = topClients;
+    }
+
+    // Invoices issued in a month (yyyy-MM) and what has been collected on them
+    public static class MonthDto {
+        private String month;
+        private BigDecimal invoiced;
+        private BigDecimal collected;
+
+        public MonthDto() {}
+
+        public MonthDto(String month, BigDecimal invoiced, BigDecimal collected) {
+            this.month = month;
+            this.invoiced = invoiced;
+            this.collected = collected;
+        }
+
+        // Getters and Setters
+        public String getMonth() {
+            return month;
+        }
+
+        public void setMonth(String month) {
+            this.month = month;
+        }
+
+        public BigDecimal getInvoiced() {
+            return invoiced;
+        }
+
+        public void setInvoiced(BigDecimal invoiced) {
+            this.invoiced = invoiced;
+        }
+
+        public BigDecimal getCollected() {
+            return collected;
+        }
+
+        public void setCollected(BigDecimal collected) {
+            this.collected = collected;
+        }
+    }
+
+    // Outstanding amount of open invoices by days past their due date
+    public static class AgingBucketDto {
+        private String bucket;
+        private BigDecimal amount;
+        private long invoiceCount;
+
+        public AgingBucketDto() {}
+
+        public AgingBucketDto(String bucket, BigDecimal amount, long invoiceCount) {
+            this.bucket = bucket;
+            this.amount = amount;
+            this.invoiceCount = invoiceCount;
+        }
+
+        // Getters and Setters
+        public String getBucket() {
+            return bucket;
+        }
+
+        public void setBucket(String bucket) {
+            this.bucket = bucket;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public long getInvoiceCount() {
+            return invoiceCount;
+        }
+
+        public void setInvoiceCount(long invoiceCount) {
+            this.invoiceCount = invoiceCount;
+        }
+    }
+
+    public static class ClientOutstandingDto {
+        private Long clientId;
+        private String companyName;
+        private BigDecimal outstanding;
+        private long openInvoices;
+
+        public ClientOutstandingDto() {}
+
+        public ClientOutstandingDto(Long clientId, String companyName, BigDecimal outstanding, long openInvoices) {
+            this.clientId = clientId;
+            this.companyName = companyName;
+            this.outstanding = outstanding;
+            this.openInvoices = openInvoices;
+        }
+
+        // Getters and Setters
+        public Long getClientId() {
+            return clientId;
+        }
+
+        public void setClientId(Long clientId) {
+            this.clientId = clientId;
+        }
+
+        public String getCompanyName() {
+            return companyName;
+        }
+
+        public void setCompanyName(String companyName) {
+            this.companyName = companyName;
+        }
+
+        public BigDecimal getOutstanding() {
+            return outstanding;
+        }
+
+        public void setOutstanding(BigDecimal outstanding) {
+            this.outstanding = outstanding;
+        }
+
+        public long getOpenInvoices() {
+            return openInvoices;
+        }
+
+        public void setOpenInvoices(long openInvoices) {
+            this.openInvoices = openInvoices;
+        }
+    }
+}
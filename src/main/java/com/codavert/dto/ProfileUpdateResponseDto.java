@@ -0,0 +1,49 @@
+package com.codavert.dto;
+
+import com.codavert.entity.User;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.time.LocalDateTime;
+
+// Updated profile, with the fields of the user at the top level, plus a token replacing the caller's
+public class ProfileUpdateResponseDto {
+    
+    @JsonUnwrapped
+    private User user;
+    private String token;
+    private LocalDateTime tokenExpiresAt;
+    
+    // Constructors
+    public ProfileUpdateResponseDto() {}
+    
+    public ProfileUpdateResponseDto(User user, String token, LocalDateTime tokenExpiresAt) {
+        this.user = user;
+        this.token = token;
+        this.tokenExpiresAt = tokenExpiresAt;
+    }
+    
+    // Getters and Setters
+    public User getUser() {
+        return user;
+    }
+    
+    public void setUser(User user) {
+        this.user = user;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public LocalDateTime getTokenExpiresAt() {
+        return tokenExpiresAt;
+    }
+    
+    public void setTokenExpiresAt(LocalDateTime tokenExpiresAt) {
+        this.tokenExpiresAt = tokenExpiresAt;
+    }
+}
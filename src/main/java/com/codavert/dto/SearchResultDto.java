@@ -0,0 +1,62 @@
+package com.codavert.dto;
+
+public class SearchResultDto {
+
+    private String type;
+    private Long id;
+    private String title;
+    private String subtitle;
+    private int score;
+
+    // Constructors
+    public SearchResultDto() {}
+
+    public SearchResultDto(String type, Long id, String title, String subtitle, int score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getSubtitle() {
+        return subtitle;
+    }
+
+    public void setSubtitle(String subtitle) {
+        this.subtitle = subtitle;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+}
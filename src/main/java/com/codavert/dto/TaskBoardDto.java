@@ -0,0 +1,165 @@
+package com.codavert.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class TaskBoardDto {
+
+    private Long projectId;
+    private List<ColumnDto> columns;
+
+    // Constructors
+    public TaskBoardDto() {}
+
+    public TaskBoardDto(Long projectId, List<ColumnDto> columns) {
+        this.projectId = projectId;
+        this.columns = columns;
+    }
+
+    // Getters and Setters
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public List<ColumnDto> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<ColumnDto> columns) {
+        this.columns = columns;
+    }
+
+    // One status column; nextCursor loads the cards after the last one returned
+    public static class ColumnDto {
+        private String status;
+        private long totalCount;
+        private List<CardDto> cards;
+        private String nextCursor;
+        private boolean hasMore;
+
+        public ColumnDto() {}
+
+        public ColumnDto(String status, long totalCount, List<CardDto> cards, String nextCursor, boolean hasMore) {
+            this.status = status;
+            this.totalCount = totalCount;
+            this.cards = cards;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+        }
+
+        // Getters and Setters
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        public void setTotalCount(long totalCount) {
+            this.totalCount = totalCount;
+        }
+
+        public List<CardDto> getCards() {
+            return cards;
+        }
+
+        public void setCards(List<CardDto> cards) {
+            this.cards = cards;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
+
+        public boolean isHasMore() {
+            return hasMore;
+        }
+
+        public void setHasMore(boolean hasMore) {
+            this.hasMore = hasMore;
+        }
+    }
+
+    // The fields a board card shows; the full task is loaded from /api/tasks/{id}
+    public static class CardDto {
+        private Long id;
+        private String title;
+        private String priority;
+        private Long assignedToUserId;
+        private LocalDate dueDate;
+        private Double estimatedHours;
+        private Double actualHours;
+
+        public CardDto() {}
+
+        // Getters and Setters
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public void setPriority(String priority) {
+            this.priority = priority;
+        }
+
+        public Long getAssignedToUserId() {
+            return assignedToUserId;
+        }
+
+        public void setAssignedToUserId(Long assignedToUserId) {
+            this.assignedToUserId = assignedToUserId;
+        }
+
+        public LocalDate getDueDate() {
+            return dueDate;
+        }
+
+        public void setDueDate(LocalDate dueDate) {
+            this.dueDate = dueDate;
+        }
+
+        public Double getEstimatedHours() {
+            return estimatedHours;
+        }
+
+        public void setEstimatedHours(Double estimatedHours) {
+            this.estimatedHours = estimatedHours;
+        }
+
+        public Double getActualHours() {
+            return actualHours;
+        }
+
+        public void setActualHours(Double actualHours) {
+            this.actualHours = actualHours;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.codavert.dto;
+
+import com.codavert.entity.ProjectTask;
+
+import java.util.List;
+
+public class TaskChangesDto {
+
+    private List<ProjectTask> tasks;
+    private List<Long> deletedTaskIds;
+    private String nextToken;
+    private boolean fullResync;
+
+    // Constructors
+    public TaskChangesDto() {}
+
+    public TaskChangesDto(List<ProjectTask> tasks, List<Long> deletedTaskIds, String nextToken, boolean fullResync) {
+        this.tasks = tasks;
+        this.deletedTaskIds = deletedTaskIds;
+        this.nextToken = nextToken;
+        this.fullResync = fullResync;
+    }
+
+    // Getters and Setters
+    public List<ProjectTask> getTasks() {
+        return tasks;
+    }
+
+    public void setTasks(List<ProjectTask> tasks) {
+        this.tasks = tasks;
+    }
+
+    public List<Long> getDeletedTaskIds() {
+        return deletedTaskIds;
+    }
+
+    public void setDeletedTaskIds(List<Long> deletedTaskIds) {
+        this.deletedTaskIds = deletedTaskIds;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+
+    // When true, tasks is the complete list and replaces the client's copy
+    public boolean isFullResync() {
+        return fullResync;
+    }
+
+    public void setFullResync(boolean fullResync) {
+        this.fullResync = fullResync;
+    }
+}
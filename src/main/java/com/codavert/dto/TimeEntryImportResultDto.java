@@ -0,0 +1,79 @@
+package com.codavert.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TimeEntryImportResultDto {
+
+    private long importedCount;
+    private long failedCount;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+
+    // Constructors
+    public TimeEntryImportResultDto() {}
+
+    // Getters and Setters
+    public long getImportedCount() {
+        return importedCount;
+    }
+
+    public void setImportedCount(long importedCount) {
+        this.importedCount = importedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    // True when more rows failed than are listed in errors
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // Nested DTO for a rejected row; row is the line number in the file, the header being line 1
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError() {}
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        // Getters and Setters
+        public long getRow() {
+            return row;
+        }
+
+        public void setRow(long row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
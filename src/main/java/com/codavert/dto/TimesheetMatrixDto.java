@@ -0,0 +1,145 @@
+package com.codavert.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class TimesheetMatrixDto {
+
+    private LocalDate weekStart;
+    private LocalDate weekEnd;
+    private List<RowDto> rows;
+    // Hours per day of the week, Monday first
+    private double[] dayTotals;
+    private double totalHours;
+
+    // Constructors
+    public TimesheetMatrixDto() {}
+
+    public TimesheetMatrixDto(LocalDate weekStart, LocalDate weekEnd, List<RowDto> rows, double[] dayTotals, double totalHours) {
+        this.weekStart = weekStart;
+        this.weekEnd = weekEnd;
+        this.rows = rows;
+        this.dayTotals = dayTotals;
+        this.totalHours = totalHours;
+    }
+
+    // Getters and Setters
+    public LocalDate getWeekStart() {
+        return weekStart;
+    }
+
+    public void setWeekStart(LocalDate weekStart) {
+        this.weekStart = weekStart;
+    }
+
+    public LocalDate getWeekEnd() {
+        return weekEnd;
+    }
+
+    public void setWeekEnd(LocalDate weekEnd) {
+        this.weekEnd = weekEnd;
+    }
+
+    public List<RowDto> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<RowDto> rows) {
+        this.rows = rows;
+    }
+
+    public double[] getDayTotals() {
+        return dayTotals;
+    }
+
+    public void setDayTotals(double[] dayTotals) {
+        this.dayTotals = dayTotals;
+    }
+
+    public double getTotalHours() {
+        return totalHours;
+    }
+
+    public void setTotalHours(double totalHours) {
+        this.totalHours = totalHours;
+    }
+
+    // One user on one project; hours has one value per day of the week, Monday first
+    public static class RowDto {
+        private Long userId;
+        private String userFirstName;
+        private String userLastName;
+        private Long projectId;
+        private String projectTitle;
+        private double[] hours;
+        private double totalHours;
+
+        public RowDto() {}
+
+        public RowDto(Long userId, String userFirstName, String userLastName, Long projectId, String projectTitle, double[] hours) {
+            this.userId = userId;
+            this.userFirstName = userFirstName;
+            this.userLastName = userLastName;
+            this.projectId = projectId;
+            this.projectTitle = projectTitle;
+            this.hours = hours;
+        }
+
+        // Getters and Setters
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getUserFirstName() {
+            return userFirstName;
+        }
+
+        public void setUserFirstName(String userFirstName) {
+            this.userFirstName = userFirstName;
+        }
+
+        public String getUserLastName() {
+            return userLastName;
+        }
+
+        public void setUserLastName(String userLastName) {
+            this.userLastName = userLastName;
+        }
+
+        public Long getProjectId() {
+            return projectId;
+        }
+
+        public void setProjectId(Long projectId) {
+            this.projectId = projectId;
+        }
+
+        public String getProjectTitle() {
+            return projectTitle;
+        }
+
+        public void setProjectTitle(String projectTitle) {
+            this.projectTitle = projectTitle;
+        }
+
+        public double[] getHours() {
+            return hours;
+        }
+
+        public void setHours(double[] hours) {
+            this.hours = hours;
+        }
+
+        public double getTotalHours() {
+            return totalHours;
+        }
+
+        public void setTotalHours(double totalHours) {
+            this.totalHours = totalHours;
+        }
+    }
+}
@@ -7,7 +7,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(name = "activity_logs", indexes = {
+    @Index(name = "idx_activity_logs_user_created_id", columnList = "userId, createdAt, id"),
+    @Index(name = "idx_activity_logs_user_type_created_id", columnList = "userId, entityType, createdAt, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class ActivityLog {
 
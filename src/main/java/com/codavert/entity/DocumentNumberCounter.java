@@ -0,0 +1,90 @@
+package com.codavert.entity;
+
+import jakarta.persistence.*;
+
+// Next unreserved document number per user and document type, handed out in blocks by DocumentNumberAllocator
+@Entity
+@Table(name = "document_number_counters",
+    uniqueConstraints = @UniqueConstraint(name = "uk_document_number_counters_key", columnNames = {"user_id", "document_type"}))
+public class DocumentNumberCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false, length = 20)
+    private DocumentType documentType;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    public enum DocumentType {
+        INVOICE("INV-", "invoices", "invoice_number"),
+        MOU("MOU-", "mous", "mou_number"),
+        PROPOSAL("PROP-", "proposals", "proposal_number"),
+        SRS("SRS-", "srs", "srs_number");
+
+        private final String prefix;
+        private final String table;
+        private final String numberColumn;
+
+        DocumentType(String prefix, String table, String numberColumn) {
+            this.prefix = prefix;
+            this.table = table;
+            this.numberColumn = numberColumn;
+        }
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        // Table and column holding the numbers, read once to start a counter above existing documents
+        public String getTable() {
+            return table;
+        }
+
+        public String getNumberColumn() {
+            return numberColumn;
+        }
+    }
+
+    public DocumentNumberCounter() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public DocumentType getDocumentType() {
+        return documentType;
+    }
+
+    public void setDocumentType(DocumentType documentType) {
+        this.documentType = documentType;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
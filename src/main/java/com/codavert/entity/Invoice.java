@@ -15,7 +15,10 @@ import java.time.LocalDateTime;
 
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+    @Index(name = "idx_invoices_status_due_date", columnList = "status, due_date"),
+    @Index(name = "idx_invoices_user_status", columnList = "user_id, status")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Invoice {
     
@@ -64,6 +67,10 @@ public class Invoice {
     @Column(name = "amount_received", precision = 10, scale = 2)
     private BigDecimal amountReceived;
     
+    // Set when the overdue sweep moves the invoice to OVERDUE
+    @Column(name = "overdue_since")
+    private LocalDateTime overdueSince;
+    
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -202,6 +209,14 @@ public class Invoice {
         this.amountReceived = amountReceived;
     }
     
+    public LocalDateTime getOverdueSince() {
+        return overdueSince;
+    }
+    
+    public void setOverdueSince(LocalDateTime overdueSince) {
+        this.overdueSince = overdueSince;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,38 @@
+package com.codavert.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Record of a one-time data migration that has completed, so it is not run again
+@Entity
+@Table(name = "migration_markers")
+public class MigrationMarker {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+
+    public MigrationMarker() {
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import com.codavert.entity.listener.SearchIndexListener;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
@@ -19,7 +20,7 @@ import java.util.Set;
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "projects")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SearchIndexListener.class})
 public class Project {
     
     @Id
@@ -96,6 +97,15 @@ public class Project {
     @JoinColumn(name = "client_id", nullable = false)
     private Client client;
     
+    // Task delta sync counters; only TaskSyncService writes them, in SQL, so entity saves leave them alone
+    @JsonIgnore
+    @Column(name = "task_change_seq", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long taskChangeSeq;
+    
+    @JsonIgnore
+    @Column(name = "task_purged_seq", nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long taskPurgedSeq;
+    
     @JsonIgnore
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<ProjectDocument> documents = new HashSet<>();
@@ -276,6 +286,14 @@ public class Project {
         return client;
     }
     
+    public long getTaskChangeSeq() {
+        return taskChangeSeq;
+    }
+    
+    public long getTaskPurgedSeq() {
+        return taskPurgedSeq;
+    }
+    
     public void setClient(Client client) {
         this.client = client;
     }
@@ -1,21 +1,33 @@
 package com.codavert.entity;
 
+import com.codavert.entity.listener.TaskChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "project_tasks")
+@Table(name = "project_tasks", indexes = {
+    @Index(name = "idx_project_tasks_project_change", columnList = "project_id, change_seq")
+})
+@EntityListeners(TaskChangeListener.class)
 public class ProjectTask {
     
+    // Pooled sequence so inserts can be batched; ids are handed out 50 at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "project_tasks_seq")
+    @SequenceGenerator(name = "project_tasks_seq", sequenceName = "project_tasks_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
     
+    // Project change number of the last write, stamped by TaskChangeListener; delta sync reads by it
+    @JsonIgnore
+    @Column(name = "change_seq", nullable = false, columnDefinition = "bigint default 0")
+    private long changeSeq;
+    
     @Column(nullable = false)
     private String title;
     
@@ -185,6 +197,14 @@ public class ProjectTask {
         this.createdAt = createdAt;
     }
     
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+    
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+    
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
@@ -0,0 +1,81 @@
+package com.codavert.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Record of a deleted task, kept so delta sync clients can drop it from their copy
+@Entity
+@Table(name = "task_tombstones", indexes = {
+    @Index(name = "idx_task_tombstones_project_change", columnList = "projectId, changeSeq")
+})
+public class TaskTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Long projectId;
+
+    // Project change number of the deletion
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    public TaskTombstone() {
+    }
+
+    public TaskTombstone(Long taskId, Long projectId, long changeSeq) {
+        this.taskId = taskId;
+        this.projectId = projectId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,127 @@
+package com.codavert.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+
+// Hours and entry counts per user, project, task, day, status and billable flag, maintained from time entry writes
+@Entity
+@Table(name = "timesheet_daily_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_timesheet_rollups_key",
+        columnNames = {"user_id", "project_id", "task_id", "work_date", "status", "billable"}),
+    indexes = {
+        @Index(name = "idx_timesheet_rollups_project_status", columnList = "project_id, status"),
+        @Index(name = "idx_timesheet_rollups_task_status", columnList = "task_id, status"),
+        @Index(name = "idx_timesheet_rollups_user_date", columnList = "user_id, work_date"),
+        @Index(name = "idx_timesheet_rollups_date", columnList = "work_date")
+    })
+public class TimesheetRollup {
+
+    // Entries without a task are rolled up under this task id, so the unique key has no nulls
+    public static final long NO_TASK = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(name = "work_date", nullable = false)
+    private LocalDate workDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TimeEntry.EntryStatus status;
+
+    @Column(nullable = false)
+    private Boolean billable;
+
+    @Column(nullable = false)
+    private Double hours;
+
+    @Column(name = "entry_count", nullable = false)
+    private Long entryCount;
+
+    public TimesheetRollup() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDate getWorkDate() {
+        return workDate;
+    }
+
+    public void setWorkDate(LocalDate workDate) {
+        this.workDate = workDate;
+    }
+
+    public TimeEntry.EntryStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TimeEntry.EntryStatus status) {
+        this.status = status;
+    }
+
+    public Boolean getBillable() {
+        return billable;
+    }
+
+    public void setBillable(Boolean billable) {
+        this.billable = billable;
+    }
+
+    public Double getHours() {
+        return hours;
+    }
+
+    public void setHours(Double hours) {
+        this.hours = hours;
+    }
+
+    public Long getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(Long entryCount) {
+        this.entryCount = entryCount;
+    }
+}
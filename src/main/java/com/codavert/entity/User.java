@@ -8,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import com.codavert.entity.listener.SearchIndexListener;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -17,7 +18,7 @@ import java.util.Set;
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "users")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SearchIndexListener.class})
 public class User {
     
     @Id
@@ -65,6 +66,11 @@ public class User {
     @Column(length = 20)
     private UserStatus status = UserStatus.ACTIVE;
     
+    // Embedded in issued JWTs; bumping it revokes every token issued before
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion = 0;
+    
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -181,6 +187,21 @@ public class User {
         this.status = status;
     }
     
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
+    /**
+     * Revokes every token issued so far; saved together with the change that calls for it.
+     */
+    public void revokeTokens() {
+        this.tokenVersion++;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,31 @@
+package com.codavert.entity.listener;
+
+import com.codavert.service.SearchIndexService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Entity listener on Client, Project, ProjectDocument and User that hands every write and
+ * removal to the search index, which applies it once the transaction commits.
+ */
+public class SearchIndexListener {
+
+    // Lazy: the listener is created while the entity manager factory is being built
+    @Autowired
+    @Lazy
+    private SearchIndexService searchIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onWrite(Object entity) {
+        searchIndex.entityWritten(entity);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        searchIndex.entityRemoved(entity);
+    }
+}
@@ -0,0 +1,26 @@
+package com.codavert.entity.listener;
+
+import com.codavert.entity.ProjectTask;
+import com.codavert.service.TaskSyncService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Entity listener on ProjectTask that stamps every insert and update with the next change number
+ * of the task's project, on the transaction that writes the task.
+ */
+public class TaskChangeListener {
+
+    // Lazy: the listener is created while the entity manager factory, which the service depends on, is being built
+    @Autowired
+    @Lazy
+    private TaskSyncService taskSyncService;
+
+    @PrePersist
+    @PreUpdate
+    public void onWrite(ProjectTask task) {
+        taskSyncService.stampChange(task);
+    }
+}
@@ -0,0 +1,42 @@
+package com.codavert.entity.listener;
+
+import com.codavert.entity.TimeEntry;
+import com.codavert.service.TimesheetRollupService;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Entity listener on TimeEntry that hands every load and write to the timesheet rollup. The
+ * callbacks run during the flush, on the transaction that writes the entry.
+ */
+public class TimesheetRollupListener {
+
+    // Lazy: the listener is created while the entity manager factory, which the service depends on, is being built
+    @Autowired
+    @Lazy
+    private TimesheetRollupService rollupService;
+
+    @PostLoad
+    public void onLoad(TimeEntry entry) {
+        rollupService.entryLoaded(entry);
+    }
+
+    @PostPersist
+    public void onPersist(TimeEntry entry) {
+        rollupService.entryPersisted(entry);
+    }
+
+    @PostUpdate
+    public void onUpdate(TimeEntry entry) {
+        rollupService.entryUpdated(entry);
+    }
+
+    @PostRemove
+    public void onRemove(TimeEntry entry) {
+        rollupService.entryRemoved(entry);
+    }
+}
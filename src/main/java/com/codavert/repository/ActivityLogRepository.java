@@ -2,11 +2,16 @@ package com.codavert.repository;
 
 import com.codavert.entity.ActivityLog;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
@@ -21,5 +26,89 @@ public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long>
     Page<ActivityLog> findByUserIdAndEntityTypeOrderByCreatedAtDesc(Long userId, ActivityLog.EntityType entityType, Pageable pageable);
     
     long countByUserIdAndCreatedAtAfter(Long userId, LocalDateTime after);
+    
+    List<ActivityLog> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
+    
+    // Keyset pagination: newest first, (createdAt, id) breaks ties so the order is stable. Every page query
+    // also has a lower createdAt bound, so on the partitioned table it only reads the partitions in range.
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.createdAt >= :from " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findFeedFirstPage(@Param("userId") Long userId,
+                                        @Param("from") LocalDateTime from,
+                                        Pageable pageable);
+    
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.createdAt >= :from " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findFeedPageBefore(@Param("userId") Long userId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+    
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.entityType = :entityType " +
+           "AND a.createdAt >= :from ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findFeedFirstPageByEntityType(@Param("userId") Long userId,
+                                                    @Param("entityType") ActivityLog.EntityType entityType,
+                                                    @Param("from") LocalDateTime from,
+                                                    Pageable pageable);
+    
+    @Query("SELECT a FROM ActivityLog a WHERE a.userId = :userId AND a.entityType = :entityType " +
+           "AND a.createdAt >= :from " +
+           "AND (a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ActivityLog> findFeedPageBeforeByEntityType(@Param("userId") Long userId,
+                                                     @Param("entityType") ActivityLog.EntityType entityType,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Pageable pageable);
+    
+    @Query("SELECT MAX(a.createdAt) FROM ActivityLog a WHERE a.userId = :userId AND a.createdAt < :before")
+    LocalDateTime findLatestCreatedAtBefore(@Param("userId") Long userId, @Param("before") LocalDateTime before);
+    
+    @Query("SELECT MAX(a.createdAt) FROM ActivityLog a WHERE a.userId = :userId AND a.entityType = :entityType " +
+           "AND a.createdAt < :before")
+    LocalDateTime findLatestCreatedAtBeforeByEntityType(@Param("userId") Long userId,
+                                                        @Param("entityType") ActivityLog.EntityType entityType,
+                                                        @Param("before") LocalDateTime before);
+    
+    /**
+     * Up to count entries of the user, newest first, optionally of one entity type and before the given
+     * (createdAt, id) position. Entries are read one calendar month at a time, matching the monthly
+     * partitions of activity_logs; months without entries are skipped in one step.
+     */
+    default List<ActivityLog> findFeed(Long userId, ActivityLog.EntityType entityType,
+                                       LocalDateTime beforeCreatedAt, Long beforeId, int count) {
+        LocalDateTime from = YearMonth.from(beforeCreatedAt != null ? beforeCreatedAt : LocalDateTime.now())
+                .atDay(1).atStartOfDay();
+        List<ActivityLog> logs = new ArrayList<>();
+        while (true) {
+            Pageable pageable = PageRequest.of(0, count - logs.size());
+            if (beforeCreatedAt == null) {
+                logs.addAll(entityType == null
+                        ? findFeedFirstPage(userId, from, pageable)
+                        : findFeedFirstPageByEntityType(userId, entityType, from, pageable));
+            } else {
+                logs.addAll(entityType == null
+                        ? findFeedPageBefore(userId, from, beforeCreatedAt, beforeId, pageable)
+                        : findFeedPageBeforeByEntityType(userId, entityType, from, beforeCreatedAt, beforeId, pageable));
+            }
+            if (logs.size() >= count) {
+                return logs;
+            }
+
+            // Continue with the month of the next older matching entry, everything before this month
+            LocalDateTime older = entityType == null
+                    ? findLatestCreatedAtBefore(userId, from)
+                    : findLatestCreatedAtBeforeByEntityType(userId, entityType, from);
+            if (older == null) {
+                return logs;
+            }
+            beforeCreatedAt = from;
+            beforeId = Long.MIN_VALUE;
+            from = YearMonth.from(older).atDay(1).atStartOfDay();
+        }
+    }
 }
 
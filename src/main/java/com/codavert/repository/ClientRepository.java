@@ -35,6 +35,20 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
                                        @Param("searchTerm") String searchTerm, 
                                        Pageable pageable);
     
+    // Trigram search mode (PostgreSQL): the same match, served by the trigram indexes and ranked by similarity
+    String RANKED_SEARCH_WHERE = "WHERE c.user_id = :userId AND (lower(c.company_name) LIKE :pattern " +
+                                 "OR lower(c.contact_person) LIKE :pattern OR lower(c.email) LIKE :pattern)";
+    
+    @Query(value = "SELECT c.* FROM clients c " + RANKED_SEARCH_WHERE + " ORDER BY GREATEST(" +
+                   "word_similarity(:term, lower(c.company_name)), word_similarity(:term, lower(c.contact_person)), " +
+                   "word_similarity(:term, lower(c.email))) DESC, c.id",
+           countQuery = "SELECT COUNT(*) FROM clients c " + RANKED_SEARCH_WHERE,
+           nativeQuery = true)
+    Page<Client> searchClientsByUserIdRanked(@Param("userId") Long userId,
+                                             @Param("term") String term,
+                                             @Param("pattern") String pattern,
+                                             Pageable pageable);
+    
     @Query("SELECT COUNT(c) FROM Client c WHERE c.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
     
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -52,19 +53,72 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
                                           @Param("startDate") LocalDate startDate, 
                                           @Param("endDate") LocalDate endDate);
     
-    @EntityGraph(attributePaths = {"project", "client", "user"})
-    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND i.dueDate < :date AND i.status != 'PAID'")
-    List<Invoice> findOverdueInvoicesByUserId(@Param("userId") Long userId, 
-                                             @Param("date") LocalDate date);
-    
-    @Query("SELECT SUM(i.totalAmount) FROM Invoice i WHERE i.user.id = :userId AND i.status = :status")
-    Double sumTotalAmountByUserIdAndStatus(@Param("userId") Long userId, 
-                                          @Param("status") Invoice.InvoiceStatus status);
+    // OVERDUE, plus sent or viewed invoices that fell due since the last overdue sweep
+    String OVERDUE_CONDITION = "(i.status = 'OVERDUE' OR (i.status IN ('SENT', 'VIEWED') AND i.dueDate < :today))";
     
-    @Query("SELECT SUM(i.totalAmount) FROM Invoice i WHERE i.user.id = :userId AND i.invoiceDate BETWEEN :startDate AND :endDate")
-    Double sumTotalAmountByUserIdAndDateRange(@Param("userId") Long userId, 
-                                             @Param("startDate") LocalDate startDate, 
-                                             @Param("endDate") LocalDate endDate);
+    @EntityGraph(attributePaths = {"project", "client", "user"})
+    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId AND " + OVERDUE_CONDITION)
+    List<Invoice> findOverdueInvoicesByUserId(@Param("userId") Long userId, @Param("today") LocalDate today);
+    
+    // Invoice grid rows: only the listed columns plus client name and project title, no entity graph
+    String LIST_ITEM_SELECT = "SELECT i.id AS id, i.invoiceNumber AS invoiceNumber, i.invoiceDate AS invoiceDate, " +
+                              "i.dueDate AS dueDate, i.subtotal AS subtotal, i.taxAmount AS taxAmount, " +
+                              "i.totalAmount AS totalAmount, i.amountReceived AS amountReceived, i.paidDate AS paidDate, " +
+                              "i.status AS status, c.id AS clientId, c.companyName AS clientName, " +
+                              "p.id AS projectId, p.title AS projectTitle " +
+                              "FROM Invoice i JOIN i.client c JOIN i.project p";
+    
+    @Query(value = LIST_ITEM_SELECT + " WHERE i.user.id = :userId",
+           countQuery = "SELECT COUNT(i) FROM Invoice i WHERE i.user.id = :userId")
+    Page<InvoiceListItem> findListItemsByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(value = LIST_ITEM_SELECT,
+           countQuery = "SELECT COUNT(i) FROM Invoice i")
+    Page<InvoiceListItem> findAllListItems(Pageable pageable);
+    
+    @Query(LIST_ITEM_SELECT + " WHERE p.id = :projectId")
+    List<InvoiceListItem> findListItemsByProjectId(@Param("projectId") Long projectId);
+    
+    @Query(value = LIST_ITEM_SELECT + " WHERE c.id = :clientId",
+           countQuery = "SELECT COUNT(i) FROM Invoice i WHERE i.client.id = :clientId")
+    Page<InvoiceListItem> findListItemsByClientId(@Param("clientId") Long clientId, Pageable pageable);
+    
+    interface InvoiceListItem {
+        Long getId();
+        String getInvoiceNumber();
+        LocalDate getInvoiceDate();
+        LocalDate getDueDate();
+        BigDecimal getSubtotal();
+        BigDecimal getTaxAmount();
+        BigDecimal getTotalAmount();
+        BigDecimal getAmountReceived();
+        LocalDate getPaidDate();
+        Invoice.InvoiceStatus getStatus();
+        Long getClientId();
+        String getClientName();
+        Long getProjectId();
+        String getProjectTitle();
+    }
+    
+    // Invoice counters and amounts for a client in one scan; past-due sent or viewed invoices count as overdue, not pending
+    @Query("SELECT COUNT(i) AS total, " +
+           "COALESCE(SUM(CASE WHEN i.status = 'PAID' THEN 1 ELSE 0 END), 0) AS paid, " +
+           "COALESCE(SUM(CASE WHEN i.status = 'DRAFT' OR (i.status IN ('SENT', 'VIEWED') " +
+           "AND (i.dueDate IS NULL OR i.dueDate >= :today)) THEN 1 ELSE 0 END), 0) AS pending, " +
+           "COALESCE(SUM(CASE WHEN " + OVERDUE_CONDITION + " THEN 1 ELSE 0 END), 0) AS overdue, " +
+           "COALESCE(SUM(CASE WHEN i.status = 'PAID' THEN i.totalAmount END), 0) AS revenue, " +
+           "COALESCE(SUM(CASE WHEN i.status <> 'PAID' THEN i.totalAmount END), 0) AS pendingRevenue " +
+           "FROM Invoice i WHERE i.client.id = :clientId")
+    ClientInvoiceTotals getClientInvoiceTotals(@Param("clientId") Long clientId, @Param("today") LocalDate today);
+    
+    interface ClientInvoiceTotals {
+        Long getTotal();
+        Long getPaid();
+        Long getPending();
+        Long getOverdue();
+        BigDecimal getRevenue();
+        BigDecimal getPendingRevenue();
+    }
     
     @Query("SELECT COUNT(i) FROM Invoice i WHERE i.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
@@ -72,7 +126,4 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     @Query("SELECT COUNT(i) FROM Invoice i WHERE i.user.id = :userId AND i.status = :status")
     Long countByUserIdAndStatus(@Param("userId") Long userId, 
                                @Param("status") Invoice.InvoiceStatus status);
-    
-    @Query("SELECT MAX(i.invoiceNumber) FROM Invoice i WHERE i.user.id = :userId")
-    String findMaxInvoiceNumberByUserId(@Param("userId") Long userId);
 }
@@ -32,8 +32,5 @@ public interface MOURepository extends JpaRepository<MOU, Long> {
     Page<MOU> findByUserIdAndStatus(@Param("userId") Long userId, 
                                    @Param("status") MOU.MOUStatus status, 
                                    Pageable pageable);
-    
-    @Query("SELECT MAX(m.mouNumber) FROM MOU m WHERE m.user.id = :userId")
-    String findMaxMouNumberByUserId(@Param("userId") Long userId);
 }
 
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -37,6 +38,19 @@ public interface ProjectDocumentRepository extends JpaRepository<ProjectDocument
                                                  @Param("searchTerm") String searchTerm, 
                                                  Pageable pageable);
     
+    // Trigram search mode (PostgreSQL): the same match, served by the trigram indexes and ranked by
+    // similarity, with descriptions counting half so title matches come first
+    String RANKED_SEARCH_WHERE = "WHERE pd.user_id = :userId AND (lower(pd.title) LIKE :pattern OR lower(pd.description) LIKE :pattern)";
+    
+    @Query(value = "SELECT pd.* FROM project_documents pd " + RANKED_SEARCH_WHERE + " ORDER BY GREATEST(" +
+                   "word_similarity(:term, lower(pd.title)), word_similarity(:term, lower(pd.description)) / 2) DESC, pd.id",
+           countQuery = "SELECT COUNT(*) FROM project_documents pd " + RANKED_SEARCH_WHERE,
+           nativeQuery = true)
+    Page<ProjectDocument> searchDocumentsByUserIdRanked(@Param("userId") Long userId,
+                                                        @Param("term") String term,
+                                                        @Param("pattern") String pattern,
+                                                        Pageable pageable);
+    
     @Query("SELECT COUNT(pd) FROM ProjectDocument pd WHERE pd.project.id = :projectId")
     Long countByProjectId(@Param("projectId") Long projectId);
     
@@ -48,6 +62,33 @@ public interface ProjectDocumentRepository extends JpaRepository<ProjectDocument
     List<ProjectDocument> findByClientIdAndUserId(@Param("clientId") Long clientId, 
                                                   @Param("userId") Long userId);
     
+    // Client detail rows; content and template are left to the document endpoints
+    @Query(value = "SELECT pd.id AS id, pd.title AS title, pd.description AS description, pd.type AS type, " +
+                   "pd.status AS status, pd.filePath AS filePath, pd.fileName AS fileName, pd.fileType AS fileType, " +
+                   "pd.fileSize AS fileSize, pd.createdAt AS createdAt, pd.updatedAt AS updatedAt, " +
+                   "p.id AS projectId, p.title AS projectTitle " +
+                   "FROM ProjectDocument pd JOIN pd.project p WHERE p.client.id = :clientId AND p.user.id = :userId",
+           countQuery = "SELECT COUNT(pd) FROM ProjectDocument pd WHERE pd.project.client.id = :clientId AND pd.project.user.id = :userId")
+    Page<DocumentSummary> findSummariesByClientIdAndUserId(@Param("clientId") Long clientId,
+                                                           @Param("userId") Long userId,
+                                                           Pageable pageable);
+    
+    interface DocumentSummary {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        ProjectDocument.DocumentType getType();
+        ProjectDocument.DocumentStatus getStatus();
+        String getFilePath();
+        String getFileName();
+        String getFileType();
+        Long getFileSize();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getProjectId();
+        String getProjectTitle();
+    }
+    
     @Query("SELECT COUNT(pd) FROM ProjectDocument pd WHERE pd.project.client.id = :clientId AND pd.project.user.id = :userId")
     Long countByClientIdAndUserId(@Param("clientId") Long clientId, 
                                  @Param("userId") Long userId);
@@ -9,7 +9,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,6 +25,47 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     
     Page<Project> findByClientId(Long clientId, Pageable pageable);
     
+    // Project counters for a client in one scan
+    @Query("SELECT COUNT(p) AS total, " +
+           "COALESCE(SUM(CASE WHEN p.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), 0) AS active, " +
+           "COALESCE(SUM(CASE WHEN p.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completed " +
+           "FROM Project p WHERE p.client.id = :clientId")
+    ClientProjectCounts getClientProjectCounts(@Param("clientId") Long clientId);
+    
+    interface ClientProjectCounts {
+        Long getTotal();
+        Long getActive();
+        Long getCompleted();
+    }
+    
+    // Client detail rows; the TEXT columns are left to the project endpoints
+    @Query(value = "SELECT p.id AS id, p.title AS title, p.status AS status, p.type AS type, p.types AS types, " +
+                   "p.priority AS priority, p.startDate AS startDate, p.endDate AS endDate, " +
+                   "p.estimatedHours AS estimatedHours, p.actualHours AS actualHours, p.budget AS budget, " +
+                   "p.hourlyRate AS hourlyRate, p.technologies AS technologies " +
+                   "FROM Project p WHERE p.client.id = :clientId",
+           countQuery = "SELECT COUNT(p) FROM Project p WHERE p.client.id = :clientId")
+    Page<ProjectSummary> findSummariesByClientId(@Param("clientId") Long clientId, Pageable pageable);
+    
+    interface ProjectSummary {
+        Long getId();
+        String getTitle();
+        Project.ProjectStatus getStatus();
+        Project.ProjectType getType();
+        String getTypes();
+        Project.Priority getPriority();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+        Integer getEstimatedHours();
+        Integer getActualHours();
+        BigDecimal getBudget();
+        BigDecimal getHourlyRate();
+        String getTechnologies();
+    }
+    
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT p FROM Project p WHERE p.user.id = :userId AND p.status = :status")
     Page<Project> findByUserIdAndStatus(@Param("userId") Long userId, 
                                        @Param("status") Project.ProjectStatus status, 
@@ -41,6 +84,21 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
                                         @Param("searchTerm") String searchTerm, 
                                         Pageable pageable);
     
+    // Trigram search mode (PostgreSQL): the same match, served by the trigram indexes and ranked by
+    // similarity, with descriptions counting half so title matches come first
+    String RANKED_SEARCH_WHERE = "WHERE p.user_id = :userId AND (lower(p.title) LIKE :pattern " +
+                                 "OR lower(p.description) LIKE :pattern OR lower(p.technologies) LIKE :pattern)";
+    
+    @Query(value = "SELECT p.* FROM projects p " + RANKED_SEARCH_WHERE + " ORDER BY GREATEST(" +
+                   "word_similarity(:term, lower(p.title)), word_similarity(:term, lower(p.technologies)), " +
+                   "word_similarity(:term, lower(p.description)) / 2) DESC, p.id",
+           countQuery = "SELECT COUNT(*) FROM projects p " + RANKED_SEARCH_WHERE,
+           nativeQuery = true)
+    Page<Project> searchProjectsByUserIdRanked(@Param("userId") Long userId,
+                                               @Param("term") String term,
+                                               @Param("pattern") String pattern,
+                                               Pageable pageable);
+    
     @Query("SELECT p FROM Project p WHERE p.user.id = :userId AND p.endDate < :date")
     Page<Project> findOverdueProjects(@Param("userId") Long userId, 
                                      @Param("date") LocalDate date, 
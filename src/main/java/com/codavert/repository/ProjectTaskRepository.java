@@ -1,5 +1,6 @@
 package com.codavert.repository;
 
+import com.codavert.dto.AssignedTaskViewDto;
 import com.codavert.entity.ProjectTask;
 import com.codavert.entity.ProjectTask.TaskStatus;
 import org.springframework.data.domain.Page;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,6 +22,9 @@ public interface ProjectTaskRepository extends JpaRepository<ProjectTask, Long>
     
     List<ProjectTask> findByProject_Id(Long projectId);
     
+    // Tasks written between two project change numbers, for delta sync
+    List<ProjectTask> findByProject_IdAndChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(Long projectId, long since, long upTo);
+    
     // Find tasks by project and status
     List<ProjectTask> findByProject_IdAndStatus(Long projectId, TaskStatus status);
     
@@ -32,6 +37,57 @@ public interface ProjectTaskRepository extends JpaRepository<ProjectTask, Long>
     // Find tasks assigned to a user
     Page<ProjectTask> findByAssignedToUserId(Long userId, Pageable pageable);
     
+    // Admin assigned-tasks view: task, project title and assignee in one query; filters are optional
+    @Query(value = "SELECT new com.codavert.dto.AssignedTaskViewDto(" +
+                   "t.id, t.title, t.description, t.status, t.priority, t.startDate, t.dueDate, t.completedAt, " +
+                   "t.estimatedHours, t.actualHours, t.createdAt, t.updatedAt, p.id, p.title, " +
+                   "t.assignedToUserId, u.firstName, u.lastName, u.email, u.phone) " +
+                   "FROM ProjectTask t JOIN t.project p LEFT JOIN User u ON u.id = t.assignedToUserId " +
+                   "WHERE (:projectId IS NULL OR p.id = :projectId) AND (:status IS NULL OR t.status = :status)",
+           countQuery = "SELECT COUNT(t) FROM ProjectTask t " +
+                        "WHERE (:projectId IS NULL OR t.project.id = :projectId) AND (:status IS NULL OR t.status = :status)")
+    Page<AssignedTaskViewDto> findAssignedTaskViews(@Param("projectId") Long projectId,
+                                                    @Param("status") TaskStatus status,
+                                                    Pageable pageable);
+    
+    // Kanban board: the first rows of every status column after afterId, each with its column's total
+    @Query(value = "SELECT r.id AS id, r.title AS title, r.status AS status, r.priority AS priority, " +
+                   "r.assigned_to_user_id AS assignedToUserId, r.due_date AS dueDate, " +
+                   "r.estimated_hours AS estimatedHours, r.actual_hours AS actualHours, r.column_total AS columnTotal " +
+                   "FROM (SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.status ORDER BY c.id) AS rn " +
+                   "FROM (SELECT t.id, t.title, t.status, t.priority, t.assigned_to_user_id, t.due_date, " +
+                   "t.estimated_hours, t.actual_hours, COUNT(*) OVER (PARTITION BY t.status) AS column_total " +
+                   "FROM project_tasks t WHERE t.project_id = :projectId " +
+                   "AND (CAST(:status AS VARCHAR) IS NULL OR t.status = CAST(:status AS VARCHAR))) c " +
+                   "WHERE c.id > :afterId) r " +
+                   "WHERE r.rn <= :rowsPerColumn ORDER BY r.id",
+           nativeQuery = true)
+    List<BoardRow> findBoardRows(@Param("projectId") Long projectId,
+                                 @Param("status") String status,
+                                 @Param("afterId") Long afterId,
+                                 @Param("rowsPerColumn") int rowsPerColumn);
+    
+    interface BoardRow {
+        Long getId();
+        String getTitle();
+        String getStatus();
+        String getPriority();
+        Long getAssignedToUserId();
+        LocalDate getDueDate();
+        Double getEstimatedHours();
+        Double getActualHours();
+        Long getColumnTotal();
+    }
+    
+    // Project of each of the given tasks, for validating references in bulk
+    @Query("SELECT t.id AS id, t.project.id AS projectId FROM ProjectTask t WHERE t.id IN :ids")
+    List<TaskProject> findTaskProjects(@Param("ids") Collection<Long> ids);
+    
+    interface TaskProject {
+        Long getId();
+        Long getProjectId();
+    }
+    
     // Find tasks by project and assigned user
     List<ProjectTask> findByProject_IdAndAssignedToUserId(Long projectId, Long userId);
     
@@ -59,6 +115,31 @@ public interface ProjectTaskRepository extends JpaRepository<ProjectTask, Long>
            "WHERE t.project.id = :projectId GROUP BY t.status")
     List<Object[]> getTaskStatsByProject(@Param("projectId") Long projectId);
     
+    // All task counters for a project in one scan
+    @Query("SELECT COUNT(t) AS total, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'TODO' THEN 1 ELSE 0 END), 0) AS todo, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), 0) AS inProgress, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completed, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'BLOCKED' THEN 1 ELSE 0 END), 0) AS blocked, " +
+           "COALESCE(SUM(CASE WHEN t.dueDate < :currentDate " +
+           "AND t.status NOT IN ('COMPLETED', 'CANCELLED') THEN 1 ELSE 0 END), 0) AS overdue, " +
+           "COALESCE(SUM(CASE WHEN t.dueDate BETWEEN :currentDate AND :upcomingEndDate " +
+           "AND t.status NOT IN ('COMPLETED', 'CANCELLED') THEN 1 ELSE 0 END), 0) AS upcoming " +
+           "FROM ProjectTask t WHERE t.project.id = :projectId")
+    TaskCounts getTaskCounts(@Param("projectId") Long projectId,
+                             @Param("currentDate") LocalDate currentDate,
+                             @Param("upcomingEndDate") LocalDate upcomingEndDate);
+    
+    interface TaskCounts {
+        Long getTotal();
+        Long getTodo();
+        Long getInProgress();
+        Long getCompleted();
+        Long getBlocked();
+        Long getOverdue();
+        Long getUpcoming();
+    }
+    
     // Get upcoming tasks (due in next N days)
     @Query("SELECT t FROM ProjectTask t WHERE t.project.id = :projectId " +
            "AND t.dueDate BETWEEN :startDate AND :endDate " +
@@ -32,8 +32,5 @@ public interface ProposalRepository extends JpaRepository<Proposal, Long> {
     Page<Proposal> findByUserIdAndStatus(@Param("userId") Long userId, 
                                         @Param("status") Proposal.ProposalStatus status, 
                                         Pageable pageable);
-    
-    @Query("SELECT MAX(p.proposalNumber) FROM Proposal p WHERE p.user.id = :userId")
-    String findMaxProposalNumberByUserId(@Param("userId") Long userId);
 }
 
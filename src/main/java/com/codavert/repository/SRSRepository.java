@@ -32,8 +32,5 @@ public interface SRSRepository extends JpaRepository<SRS, Long> {
     Page<SRS> findByUserIdAndStatus(@Param("userId") Long userId, 
                                     @Param("status") SRS.SRSStatus status, 
                                     Pageable pageable);
-    
-    @Query("SELECT MAX(s.srsNumber) FROM SRS s WHERE s.user.id = :userId")
-    String findMaxSrsNumberByUserId(@Param("userId") Long userId);
 }
 
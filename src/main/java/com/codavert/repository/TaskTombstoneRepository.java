@@ -0,0 +1,22 @@
+package com.codavert.repository;
+
+import com.codavert.entity.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    @Query("SELECT DISTINCT t.taskId FROM TaskTombstone t WHERE t.projectId = :projectId AND t.changeSeq > :since AND t.changeSeq <= :upTo")
+    List<Long> findDeletedTaskIdsBetween(@Param("projectId") Long projectId, @Param("since") long since, @Param("upTo") long upTo);
+
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
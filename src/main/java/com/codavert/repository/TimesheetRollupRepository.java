@@ -0,0 +1,29 @@
+package com.codavert.repository;
+
+import com.codavert.entity.TimeEntry;
+import com.codavert.entity.TimesheetRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TimesheetRollupRepository extends JpaRepository<TimesheetRollup, Long> {
+
+    // Hours and entry counts of a project per task and entry status, in one scan of the project's rows
+    @Query("SELECT r.taskId AS taskId, r.status AS status, SUM(r.hours) AS hours, SUM(r.entryCount) AS entryCount " +
+           "FROM TimesheetRollup r WHERE r.projectId = :projectId GROUP BY r.taskId, r.status ORDER BY r.taskId")
+    List<TaskStatusTotals> sumByProjectGroupedByTaskAndStatus(@Param("projectId") Long projectId);
+
+    @Query("SELECT SUM(r.hours) FROM TimesheetRollup r WHERE r.taskId = :taskId AND r.status = :status")
+    Double sumHoursByTaskIdAndStatus(@Param("taskId") Long taskId, @Param("status") TimeEntry.EntryStatus status);
+
+    interface TaskStatusTotals {
+        Long getTaskId();
+        TimeEntry.EntryStatus getStatus();
+        Double getHours();
+        Long getEntryCount();
+    }
+}
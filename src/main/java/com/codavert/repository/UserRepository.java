@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,10 +19,25 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmail(String email);
     
+    @Query("SELECT u FROM User u WHERE u.username = :login OR u.email = :login")
+    List<User> findByUsernameOrEmail(@Param("login") String login);
+    
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
     
+    // Token version and status, all that is needed to accept or reject a JWT
+    interface TokenState {
+        Integer getTokenVersion();
+        User.UserStatus getStatus();
+    }
+    
+    @Query("SELECT u.tokenVersion AS tokenVersion, u.status AS status FROM User u WHERE u.id = :id")
+    Optional<TokenState> findTokenStateById(@Param("id") Long id);
+    
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT u FROM User u WHERE u.status = :status")
     Page<User> findByStatus(@Param("status") User.UserStatus status, Pageable pageable);
     
@@ -33,4 +50,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
+    
+    // Trigram search mode (PostgreSQL): the same match, served by the trigram indexes and ranked by similarity
+    String RANKED_SEARCH_WHERE = "WHERE lower(u.first_name) LIKE :pattern OR lower(u.last_name) LIKE :pattern " +
+                                 "OR lower(u.username) LIKE :pattern OR lower(u.email) LIKE :pattern";
+    
+    @Query(value = "SELECT u.* FROM users u " + RANKED_SEARCH_WHERE + " ORDER BY GREATEST(" +
+                   "word_similarity(:term, lower(u.first_name)), word_similarity(:term, lower(u.last_name)), " +
+                   "word_similarity(:term, lower(u.username)), word_similarity(:term, lower(u.email))) DESC, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u " + RANKED_SEARCH_WHERE,
+           nativeQuery = true)
+    Page<User> searchUsersRanked(@Param("term") String term, @Param("pattern") String pattern, Pageable pageable);
 }
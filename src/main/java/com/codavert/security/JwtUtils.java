@@ -2,59 +2,125 @@ package com.codavert.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_SCOPE = "scope";
+    
+    // Scope of the short-lived tokens that open /api/activities/stream, passed as a query parameter
+    public static final String SCOPE_ACTIVITY_STREAM = "activity-stream";
+    
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize;
+    
+    // Key and parser are immutable and thread-safe, so build them once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    // Claims of tokens whose signature was already checked, keyed by SHA-256 of the token
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
-    public String generateJwtToken(Authentication authentication) {
+    /**
+     * Issues a token for the authenticated user, carrying the user's current token version.
+     */
+    public String generateJwtToken(Authentication authentication, int tokenVersion) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        String role = userPrincipal.getAuthorities().iterator().next().getAuthority().substring("ROLE_".length());
         
         return Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
+                .claim(CLAIM_USER_ID, userPrincipal.getId())
+                .claim(CLAIM_EMAIL, userPrincipal.getEmail())
+                .claim(CLAIM_ROLE, role)
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
     
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Issues a token for the same user and token version as the given verified claims, valid only
+     * for the given scope and for ttlMs. Scoped tokens are accepted only where that scope is expected.
+     */
+    public String generateScopedToken(Claims claims, String scope, long ttlMs) {
+        return Jwts.builder()
+                .setSubject(claims.getSubject())
+                .claim(CLAIM_USER_ID, claims.get(CLAIM_USER_ID))
+                .claim(CLAIM_EMAIL, claims.get(CLAIM_EMAIL))
+                .claim(CLAIM_ROLE, claims.get(CLAIM_ROLE))
+                .claim(CLAIM_TOKEN_VERSION, claims.get(CLAIM_TOKEN_VERSION))
+                .claim(CLAIM_SCOPE, scope)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date((new Date()).getTime() + ttlMs))
+                .signWith(signingKey, SignatureAlgorithm.HS512)
+                .compact();
     }
     
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the token once and returns its claims, or null if the token is invalid or expired.
+     * Tokens already verified are served from a bounded cache until they expire.
+     */
+    public Claims getClaimsFromJwtToken(String authToken) {
+        String digest = digest(authToken);
+        Claims cached = digest != null ? verifiedTokens.get(digest) : null;
+        if (cached != null) {
+            if (cached.getExpiration() != null && cached.getExpiration().after(new Date())) {
+                return cached;
+            }
+            verifiedTokens.remove(digest);
+            logger.error("JWT token is expired: {}", cached.getExpiration());
+            return null;
+        }
+        
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(authToken).getBody();
+            if (digest != null && claims.getExpiration() != null) {
+                cacheVerifiedToken(digest, claims);
+            }
+            return claims;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -63,8 +129,74 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Builds the principal straight from verified claims, or returns null if the token has been revoked
+     * or was issued before the principal was embedded (see {@link #hasEmbeddedPrincipal(Claims)}).
+     */
+    public UserPrincipal getPrincipalFromClaims(Claims claims) {
+        Long userId = claims.get(CLAIM_USER_ID, Long.class);
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || version == null || role == null) {
+            return null;
+        }
+        
+        if (!tokenVersionRegistry.isTokenValid(userId, version)) {
+            logger.error("JWT token has been revoked for user id: {}", userId);
+            return null;
         }
         
-        return false;
+        return UserPrincipal.create(userId, claims.getSubject(), claims.get(CLAIM_EMAIL, String.class), role);
+    }
+    
+    public boolean hasEmbeddedPrincipal(Claims claims) {
+        return claims.get(CLAIM_USER_ID) != null;
+    }
+    
+    public String getUserNameFromJwtToken(String token) {
+        Claims claims = getClaimsFromJwtToken(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return claims.getSubject();
+    }
+    
+    public boolean validateJwtToken(String authToken) {
+        return getClaimsFromJwtToken(authToken) != null;
+    }
+    
+    private void cacheVerifiedToken(String digest, Claims claims) {
+        if (verifiedTokens.size() >= verifiedCacheMaxSize) {
+            Date now = new Date();
+            verifiedTokens.values().removeIf(c -> !c.getExpiration().after(now));
+            
+            // Still full: drop an arbitrary entry, it will simply be re-verified next time
+            Iterator<String> it = verifiedTokens.keySet().iterator();
+            while (verifiedTokens.size() >= verifiedCacheMaxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        verifiedTokens.put(digest, claims);
+    }
+    
+    private String digest(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            return null;
+        }
     }
 }
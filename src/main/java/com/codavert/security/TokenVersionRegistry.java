@@ -0,0 +1,85 @@
+package com.codavert.security;
+
+import com.codavert.entity.User;
+import com.codavert.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of the per-user token version stored in users.token_version, used to
+ * revoke JWTs without a database lookup on every request. A token is accepted only while its
+ * user is active and the version embedded in it matches the stored one; security-relevant
+ * changes bump the stored version (see {@link User#revokeTokens()}) and evict the entry here.
+ *
+ * Entries expire after a short time so that revocations made on another instance are picked
+ * up within security.token-version.cache-ttl-seconds.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.token-version.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    private final Map<Long, TokenState> states = new ConcurrentHashMap<>();
+
+    public boolean isTokenValid(Long userId, int version) {
+        TokenState state = getState(userId);
+        return state.active && state.version == version;
+    }
+
+    /**
+     * Drops the cached version of the user once the current transaction commits, or right away
+     * outside a transaction; call after saving a change that revoked the user's tokens.
+     */
+    public void evict(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            states.remove(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                states.remove(userId);
+            }
+        });
+    }
+
+    private TokenState getState(Long userId) {
+        long now = System.currentTimeMillis();
+        TokenState state = states.get(userId);
+        if (state != null && state.expiresAt > now) {
+            return state;
+        }
+
+        // Deleted users have no state and every token of theirs is rejected
+        TokenState loaded = userRepository.findTokenStateById(userId)
+            .map(row -> new TokenState(
+                row.getTokenVersion() != null ? row.getTokenVersion() : 0,
+                row.getStatus() == User.UserStatus.ACTIVE,
+                now + cacheTtlSeconds * 1000))
+            .orElseGet(() -> new TokenState(-1, false, now + cacheTtlSeconds * 1000));
+        states.put(userId, loaded);
+        return loaded;
+    }
+
+    private static final class TokenState {
+        private final int version;
+        private final boolean active;
+        private final long expiresAt;
+
+        private TokenState(int version, boolean active, long expiresAt) {
+            this.version = version;
+            this.active = active;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
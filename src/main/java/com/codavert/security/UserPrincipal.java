@@ -46,6 +46,17 @@ public class UserPrincipal implements UserDetails {
         );
     }
     
+    /**
+     * Creates a principal from JWT claims, without touching the database.
+     */
+    public static UserPrincipal create(Long id, String username, String email, String role) {
+        Collection<GrantedAuthority> authorities = Collections.singletonList(
+            new SimpleGrantedAuthority("ROLE_" + role)
+        );
+        
+        return new UserPrincipal(id, username, email, null, authorities, true);
+    }
+    
     public Long getId() {
         return id;
     }
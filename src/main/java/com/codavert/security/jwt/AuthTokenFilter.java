@@ -2,6 +2,7 @@ package com.codavert.security.jwt;
 
 import com.codavert.security.JwtUtils;
 import com.codavert.security.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +18,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Objects;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     
@@ -28,20 +30,41 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
     
+    private static final String STREAM_PATH = "/api/activities/stream";
+    private static final String STREAM_TOKEN_PARAMETER = "access_token";
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            // EventSource cannot send headers, so the activity stream takes a short-lived scoped token instead
+            String expectedScope = null;
+            if (jwt == null && STREAM_PATH.equals(request.getServletPath())) {
+                jwt = request.getParameter(STREAM_TOKEN_PARAMETER);
+                expectedScope = JwtUtils.SCOPE_ACTIVITY_STREAM;
+            }
+            Claims claims = jwt != null ? jwtUtils.getClaimsFromJwtToken(jwt) : null;
+            if (claims != null && !Objects.equals(expectedScope, claims.get(JwtUtils.CLAIM_SCOPE, String.class))) {
+                logger.error("JWT token scope not accepted for {}", request.getServletPath());
+                claims = null;
+            }
+            if (claims != null) {
+                UserDetails userDetails;
+                if (jwtUtils.hasEmbeddedPrincipal(claims)) {
+                    userDetails = jwtUtils.getPrincipalFromClaims(claims);
+                } else {
+                    // Tokens issued before user id and role were embedded still need a lookup
+                    userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                }
                 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
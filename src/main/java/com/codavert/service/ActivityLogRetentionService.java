@@ -0,0 +1,200 @@
+package com.codavert.service;
+
+import com.codavert.config.DatabasePlatform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps activity_logs bounded. On PostgreSQL the table can be range-partitioned by month on
+ * created_at (ACTIVITY_LOGS_PARTITION_MIGRATION.sql, run once by hand); the feed and the
+ * recent-activity reads then only touch the months they need, and old months are removed by
+ * dropping their partition. Months older than the retention period are first exported to a
+ * gzip-compressed CSV file. Unconverted tables and other databases (H2 in local runs) keep a
+ * plain table, and old months are deleted row by row after the same export.
+ */
+@Service
+public class ActivityLogRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogRetentionService.class);
+
+    private static final String COLUMNS =
+        "id, user_id, activity_type, entity_type, entity_id, description, metadata, created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${activity-log.retention.enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${activity-log.retention.months:12}")
+    private int retentionMonths;
+
+    @Value("${activity-log.retention.archive-dir:archive/activity-logs}")
+    private String archiveDir;
+
+    @Scheduled(cron = "${activity-log.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        if (isPartitioned()) {
+            ensurePartitions(YearMonth.now(), YearMonth.now().plusMonths(2));
+        }
+        if (retentionEnabled) {
+            archiveOlderThan(YearMonth.now().minusMonths(retentionMonths));
+        }
+    }
+
+    /**
+     * Exports and removes every month before the given one. Returns the number of rows archived.
+     */
+    public long archiveOlderThan(YearMonth cutoff) {
+        Timestamp cutoffStart = Timestamp.valueOf(cutoff.atDay(1).atStartOfDay());
+        LocalDate oldest = jdbcTemplate.queryForObject(
+            "SELECT CAST(MIN(created_at) AS DATE) FROM activity_logs WHERE created_at < ?", LocalDate.class, cutoffStart);
+        if (oldest == null) {
+            return 0;
+        }
+
+        boolean partitioned = isPartitioned();
+        long archived = 0;
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            YearMonth current = month;
+            try {
+                // One transaction per month so the export streams with a cursor and the removal is atomic
+                Long rows = transactionTemplate.execute(status -> {
+                    long exported = exportMonth(current);
+                    removeMonth(current, partitioned);
+                    return exported;
+                });
+                archived += rows;
+                if (rows > 0) {
+                    logger.info("Archived {} activity logs for {}", rows, month);
+                }
+            } catch (RuntimeException e) {
+                // Leave the month in place; it is retried on the next run
+                logger.error("Archiving activity logs for {} failed: {}", month, e.getMessage());
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private void ensurePartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF activity_logs " +
+                "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    private long exportMonth(YearMonth month) {
+        Path dir = Paths.get(archiveDir);
+        Path target = dir.resolve("activity_logs_" + month + ".csv.gz");
+        Path temp = dir.resolve("activity_logs_" + month + ".csv.gz.tmp");
+        long[] rows = {0};
+
+        try {
+            Files.createDirectories(dir);
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                out.write(COLUMNS.replace(" ", "") + "\n");
+                jdbcTemplate.query(
+                    "SELECT " + COLUMNS + " FROM activity_logs WHERE created_at >= ? AND created_at < ? ORDER BY id",
+                    ps -> {
+                        ps.setFetchSize(1000);
+                        ps.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+                        ps.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+                    },
+                    (RowCallbackHandler) rs -> {
+                        try {
+                            for (int i = 1; i <= 8; i++) {
+                                if (i > 1) {
+                                    out.write(',');
+                                }
+                                out.write(csv(rs.getString(i)));
+                            }
+                            out.write('\n');
+                            rows[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write archive " + target, e);
+        }
+        return rows[0];
+    }
+
+    private void removeMonth(YearMonth month, boolean partitioned) {
+        String partition = partitionName(month);
+        if (partitioned && partitionExists(partition)) {
+            jdbcTemplate.execute("ALTER TABLE activity_logs DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+        // Rows of that month outside a dedicated partition (default partition or plain table)
+        jdbcTemplate.update("DELETE FROM activity_logs WHERE created_at >= ? AND created_at < ?",
+            Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+            Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    private boolean isPartitioned() {
+        return databasePlatform.isPostgres() && tableKinds().contains("p");
+    }
+
+    // 'r' for a plain table, 'p' for a partitioned one
+    private List<String> tableKinds() {
+        return jdbcTemplate.queryForList(
+            "SELECT CAST(c.relkind AS VARCHAR) FROM pg_class c WHERE c.relname = 'activity_logs' AND pg_table_is_visible(c.oid)",
+            String.class);
+    }
+
+    private boolean partitionExists(String name) {
+        Integer count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE c.relname = ?",
+            Integer.class, name);
+        return count != null && count > 0;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("activity_logs_y%dm%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -1,16 +1,24 @@
 package com.codavert.service;
 
+import com.codavert.dto.ActivityLogDto;
+import com.codavert.dto.CursorPageDto;
 import com.codavert.entity.ActivityLog;
+import com.codavert.entity.ProjectTask;
 import com.codavert.repository.ActivityLogRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class ActivityLogService {
@@ -18,17 +26,33 @@ public class ActivityLogService {
     @Autowired
     private ActivityLogRepository activityLogRepository;
 
-    @Transactional
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+
+    @Autowired
+    private ActivityStreamHub activityStreamHub;
+
+    @Autowired
+    private RecentActivityCache recentActivityCache;
+
+    @PostConstruct
+    public void init() {
+        // Push every written entry to the owners' live streams and recent-activity buffers
+        activityLogWriter.addListener(activityStreamHub::publish);
+        activityLogWriter.addListener(recentActivityCache::record);
+    }
+
+    // Logs are queued and written in batches; the returned entry has no id yet
     public ActivityLog logActivity(Long userId, 
                                    ActivityLog.ActivityType activityType,
                                    ActivityLog.EntityType entityType,
                                    Long entityId,
                                    String description) {
         ActivityLog log = new ActivityLog(userId, activityType, entityType, entityId, description);
-        return activityLogRepository.save(log);
+        activityLogWriter.append(log);
+        return log;
     }
 
-    @Transactional
     public ActivityLog logActivity(Long userId, 
                                    ActivityLog.ActivityType activityType,
                                    ActivityLog.EntityType entityType,
@@ -37,7 +61,12 @@ public class ActivityLogService {
                                    String metadata) {
         ActivityLog log = new ActivityLog(userId, activityType, entityType, entityId, description);
         log.setMetadata(metadata);
-        return activityLogRepository.save(log);
+        activityLogWriter.append(log);
+        return log;
+    }
+
+    public SseEmitter streamActivities(Long userId, Long lastEventId) {
+        return activityStreamHub.subscribe(userId, lastEventId);
     }
 
     public Page<ActivityLog> getUserActivities(Long userId, int page, int size) {
@@ -46,8 +75,11 @@ public class ActivityLogService {
     }
 
     public List<ActivityLog> getRecentActivities(Long userId, int limit) {
-        Pageable pageable = PageRequest.of(0, limit);
-        return activityLogRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable).getContent();
+        List<ActivityLog> cached = recentActivityCache.getRecent(userId, limit);
+        if (cached != null) {
+            return cached;
+        }
+        return activityLogRepository.findFeed(userId, null, null, null, limit);
     }
 
     public List<ActivityLog> getActivitiesSince(Long userId, LocalDateTime since) {
@@ -62,11 +94,65 @@ public class ActivityLogService {
         return activityLogRepository.findByUserIdAndEntityTypeOrderByCreatedAtDesc(userId, entityType, pageable);
     }
 
+    /**
+     * Cursor-based feed, optionally filtered by entity type. The cursor is an opaque encoding of the
+     * (createdAt, id) of the last entry returned, so new activity never shifts the following pages.
+     */
+    public CursorPageDto<ActivityLogDto> getActivityFeed(Long userId,
+                                                         ActivityLog.EntityType entityType,
+                                                         String cursor,
+                                                         int limit) {
+        LocalDateTime createdAt = null;
+        Long id = null;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] position = decodeCursor(cursor);
+            createdAt = LocalDateTime.parse(position[0]);
+            id = Long.valueOf(position[1]);
+        }
+        // Fetch one extra row to know whether another page exists
+        List<ActivityLog> logs = activityLogRepository.findFeed(userId, entityType, createdAt, id, limit + 1);
+
+        boolean hasMore = logs.size() > limit;
+        if (hasMore) {
+            logs = logs.subList(0, limit);
+        }
+        String nextCursor = hasMore ? encodeCursor(logs.get(logs.size() - 1)) : null;
+
+        List<ActivityLogDto> items = logs.stream()
+                .map(ActivityLogDto::fromEntity)
+                .collect(Collectors.toList());
+        return new CursorPageDto<>(items, nextCursor, hasMore);
+    }
+
     public long countRecentActivities(Long userId, int hours) {
+        Long cached = recentActivityCache.countSince(userId, hours);
+        if (cached != null) {
+            return cached;
+        }
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
         return activityLogRepository.countByUserIdAndCreatedAtAfter(userId, since);
     }
 
+    private String encodeCursor(ActivityLog log) {
+        String position = log.getCreatedAt() + "|" + log.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException();
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
     // Helper methods for common activity types
     public void logProjectCreated(Long userId, Long projectId, String projectName) {
         logActivity(userId, ActivityLog.ActivityType.CREATED, ActivityLog.EntityType.PROJECT, 
@@ -88,6 +174,16 @@ public class ActivityLogService {
                     taskId, "Created task: " + taskTitle);
     }
 
+    // Written on the caller's transaction, together with the tasks themselves
+    public void logTasksCreated(Long userId, List<ProjectTask> tasks) {
+        List<ActivityLog> logs = new ArrayList<>(tasks.size());
+        for (ProjectTask task : tasks) {
+            logs.add(new ActivityLog(userId, ActivityLog.ActivityType.CREATED, ActivityLog.EntityType.TASK,
+                                     task.getId(), "Created task: " + task.getTitle()));
+        }
+        activityLogWriter.writeInTransaction(logs);
+    }
+
     public void logTaskUpdated(Long userId, Long taskId, String taskTitle) {
         logActivity(userId, ActivityLog.ActivityType.UPDATED, ActivityLog.EntityType.TASK,
                     taskId, "Updated task: " + taskTitle);
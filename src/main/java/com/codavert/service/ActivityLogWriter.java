@@ -0,0 +1,256 @@
+package com.codavert.service;
+
+import com.codavert.entity.ActivityLog;
+import com.codavert.repository.ActivityLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Appends activity logs to an in-memory queue and writes them to the database in JDBC
+ * batches from a single background thread. A batch is flushed once it reaches the
+ * configured size or the flush interval has passed since its first entry. When the
+ * queue is full the caller writes its entry directly, so audit entries are never dropped.
+ * Listeners are notified with the written entries, ids included, after every flush; when a
+ * batch fails its entries are written one by one and only those that made it are passed on.
+ * Callers that need their entries committed together with their own rows use
+ * {@link #writeInTransaction(List)} instead of the queue.
+ */
+@Component
+public class ActivityLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO activity_logs (user_id, activity_type, entity_type, entity_id, description, metadata, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${activity-log.writer.batch-size:100}")
+    private int batchSize;
+
+    @Value("${activity-log.writer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${activity-log.writer.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${activity-log.writer.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${activity-log.writer.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<ActivityLog> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    private final List<Consumer<List<ActivityLog>>> listeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::run, "activity-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything appended while the worker was finishing up
+        if (!worker.isAlive() && !queue.isEmpty()) {
+            List<ActivityLog> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            flush(remaining);
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Activity log writer stopped with {} entries still queued", queue.size());
+        }
+    }
+
+    public void addListener(Consumer<List<ActivityLog>> listener) {
+        listeners.add(listener);
+    }
+
+    public void append(ActivityLog log) {
+        try {
+            if (running && queue.offer(log, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Queue is full or the writer is shutting down: write on the caller's thread
+        activityLogRepository.save(log);
+        notifyListeners(List.of(log));
+    }
+
+    /**
+     * Writes the entries as one JDBC batch on the caller's transaction, so they commit or roll back
+     * with it. Listeners are notified once the transaction has committed.
+     */
+    public void writeInTransaction(List<ActivityLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        insertBatch(logs);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyListeners(logs);
+                }
+            });
+        } else {
+            notifyListeners(logs);
+        }
+    }
+
+    private void run() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ActivityLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    ActivityLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+            } catch (InterruptedException e) {
+                running = false;
+            }
+
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<ActivityLog> batch) {
+        try {
+            // One transaction, so a failed batch leaves no rows behind that the retry would write again
+            transactionTemplate.execute(status -> {
+                insertBatch(batch);
+                return null;
+            });
+            notifyListeners(batch);
+            return;
+        } catch (Exception e) {
+            logger.error("Batch insert of {} activity logs failed, retrying one by one: {}", batch.size(), e.getMessage());
+        }
+
+        // Listeners only hear about the entries that were actually written
+        List<ActivityLog> written = new ArrayList<>(batch.size());
+        for (ActivityLog log : batch) {
+            // Ids handed out by the rolled back batch do not exist
+            log.setId(null);
+            try {
+                written.add(activityLogRepository.save(log));
+            } catch (Exception ex) {
+                logger.error("Could not write activity log for user {}: {}", log.getUserId(), ex.getMessage());
+            }
+        }
+        if (!written.isEmpty()) {
+            notifyListeners(written);
+        }
+    }
+
+    private void insertBatch(List<ActivityLog> batch) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[] {"id"})) {
+                for (ActivityLog log : batch) {
+                    bind(ps, log);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                // Ids come back in insert order
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (i < batch.size() && keys.next()) {
+                        batch.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private void bind(PreparedStatement ps, ActivityLog log) throws SQLException {
+        ps.setLong(1, log.getUserId());
+        ps.setString(2, log.getActivityType().name());
+        ps.setString(3, log.getEntityType().name());
+        if (log.getEntityId() != null) {
+            ps.setLong(4, log.getEntityId());
+        } else {
+            ps.setNull(4, Types.BIGINT);
+        }
+        ps.setString(5, log.getDescription());
+        ps.setString(6, log.getMetadata());
+        ps.setTimestamp(7, Timestamp.valueOf(log.getCreatedAt()));
+    }
+
+    private void notifyListeners(List<ActivityLog> logs) {
+        for (Consumer<List<ActivityLog>> listener : listeners) {
+            try {
+                listener.accept(logs);
+            } catch (Exception e) {
+                logger.error("Activity log listener failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.codavert.service;
+
+import com.codavert.dto.ActivityLogDto;
+import com.codavert.entity.ActivityLog;
+import com.codavert.repository.ActivityLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans out newly written activity logs to the user's open Server-Sent Events streams.
+ * Each subscriber has a bounded buffer drained by a small sender pool, with at most one
+ * sender working on a subscriber at a time, so a slow client never blocks the log writer
+ * or other subscribers' senders. A subscriber whose buffer overflows is closed; the client
+ * reconnects with Last-Event-ID and the missed entries are replayed from the database.
+ *
+ * A write that has not finished after activity-stream.send-timeout-ms drops its subscriber,
+ * and the pool gets one extra thread (up to activity-stream.max-stalled-senders) for as long
+ * as the stalled write holds its own, so the other streams keep flowing.
+ */
+@Component
+public class ActivityStreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActivityStreamHub.class);
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Value("${activity-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${activity-stream.subscriber-buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${activity-stream.replay-limit:200}")
+    private int replayLimit;
+
+    @Value("${activity-stream.sender-threads:2}")
+    private int senderThreads;
+
+    @Value("${activity-stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${activity-stream.max-stalled-senders:8}")
+    private int maxStalledSenders;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger stalledSenders = new AtomicInteger();
+    private ThreadPoolExecutor sender;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "activity-stream-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(s -> s.emitter.complete()));
+        sender.shutdown();
+    }
+
+    /**
+     * Opens a stream for the user. When lastEventId is given, entries written after it are sent first.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, bufferSize);
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // Register first so nothing written during the replay is missed. Live entries stay buffered
+        // until the replay is out (the subscriber starts in the draining state), and entries already
+        // covered by the replay are skipped by id.
+        subscriber.draining.set(true);
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        sender.execute(() -> {
+            try {
+                if (lastEventId != null) {
+                    List<ActivityLog> missed = activityLogRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                        userId, lastEventId, PageRequest.of(0, replayLimit));
+                    for (ActivityLog log : missed) {
+                        send(subscriber, log);
+                        subscriber.replayedUpTo = log.getId();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe(subscriber);
+            } finally {
+                subscriber.draining.set(false);
+            }
+            schedule(subscriber);
+        });
+
+        return emitter;
+    }
+
+    public void publish(List<ActivityLog> logs) {
+        for (ActivityLog log : logs) {
+            Set<Subscriber> userSubscribers = subscribers.get(log.getUserId());
+            if (userSubscribers == null) {
+                continue;
+            }
+            for (Subscriber subscriber : userSubscribers) {
+                if (!subscriber.buffer.offer(log)) {
+                    logger.warn("Activity stream buffer full for user {}, closing stream", log.getUserId());
+                    unsubscribe(subscriber);
+                    subscriber.emitter.complete();
+                    continue;
+                }
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // Also drops subscribers whose current write has been stuck for longer than the send timeout
+    @Scheduled(fixedRateString = "${activity-stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            long startedAt = subscriber.writeStartedAt;
+            if (startedAt != 0 && now - startedAt > sendTimeoutMs) {
+                if (subscriber.stalled.compareAndSet(false, true)) {
+                    logger.warn("Activity stream for user {} stopped reading, dropping it", subscriber.userId);
+                    unsubscribe(subscriber);
+                    resizeSender(stalledSenders.incrementAndGet());
+                }
+                return;
+            }
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }));
+    }
+
+    private void schedule(Subscriber subscriber) {
+        boolean pending = !subscriber.buffer.isEmpty() || subscriber.heartbeatDue;
+        if (!pending || !subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        sender.execute(() -> drain(subscriber));
+    }
+
+    // Runs on one sender thread at a time per subscriber (guarded by the draining flag)
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.heartbeatDue) {
+                subscriber.heartbeatDue = false;
+                write(subscriber, SseEmitter.event().comment("heartbeat"));
+            }
+            ActivityLog log;
+            while ((log = subscriber.buffer.poll()) != null) {
+                send(subscriber, log);
+            }
+        } catch (IOException | IllegalStateException e) {
+            unsubscribe(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+
+        // Entries may have arrived after the last poll but before the flag was cleared
+        schedule(subscriber);
+    }
+
+    private void send(Subscriber subscriber, ActivityLog log) throws IOException {
+        // Already sent as part of the replay
+        if (log.getId() != null && log.getId() <= subscriber.replayedUpTo) {
+            return;
+        }
+
+        SseEmitter.SseEventBuilder event = SseEmitter.event()
+            .name("activity")
+            .data(ActivityLogDto.fromEntity(log));
+        if (log.getId() != null) {
+            event.id(String.valueOf(log.getId()));
+        }
+        write(subscriber, event);
+    }
+
+    private void write(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.writeStartedAt = System.currentTimeMillis();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.writeStartedAt = 0;
+            // The write ended after the subscriber was given up on; hand the extra thread back
+            if (subscriber.stalled.compareAndSet(true, false)) {
+                resizeSender(stalledSenders.decrementAndGet());
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    // One extra thread per stalled write, so the pool always has its configured number of working threads
+    private synchronized void resizeSender(int stalled) {
+        int size = senderThreads + Math.min(Math.max(stalled, 0), maxStalledSenders);
+        if (size > sender.getMaximumPoolSize()) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        } else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriber.buffer.clear();
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<ActivityLog> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        private volatile boolean heartbeatDue;
+        private volatile long writeStartedAt;
+        private long replayedUpTo;
+
+        private Subscriber(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -7,32 +7,43 @@ import com.codavert.dto.UserRegistrationDto;
 import com.codavert.entity.User;
 import com.codavert.repository.UserRepository;
 import com.codavert.security.JwtUtils;
+import com.codavert.security.PasswordHashingExecutor;
+import com.codavert.security.TokenVersionRegistry;
 import com.codavert.security.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.Optional;
 
 @Service
 public class AuthService {
     
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+    
     @Autowired
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingExecutor passwordHashingExecutor;
     
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private JwtUtils jwtUtils;
     
     @Autowired
-    private JwtUtils jwtUtils;
+    private TokenVersionRegistry tokenVersionRegistry;
+    
+    @Value("${activity-stream.token-ttl-seconds:60}")
+    private long streamTokenTtlSeconds;
     
     public User registerUser(UserRegistrationDto registrationDto) {
         if (userRepository.existsByUsername(registrationDto.getUsername())) {
@@ -46,7 +57,7 @@ public class AuthService {
         User user = new User();
         user.setUsername(registrationDto.getUsername());
         user.setEmail(registrationDto.getEmail());
-        user.setPassword(passwordEncoder.encode(registrationDto.getPassword()));
+        user.setPassword(passwordHashingExecutor.encode(registrationDto.getPassword()));
         user.setFirstName(registrationDto.getFirstName());
         user.setLastName(registrationDto.getLastName());
         user.setPhone(registrationDto.getPhone());
@@ -59,16 +70,11 @@ public class AuthService {
     
     public JwtResponseDto authenticateUser(LoginRequestDto loginRequest) {
         try {
-            // First check if user exists and is active before attempting authentication
-            User user = userRepository.findByUsername(loginRequest.getUsername())
+            // Resolve the user by username or email in a single query; a username match wins
+            User user = userRepository.findByUsernameOrEmail(loginRequest.getUsername()).stream()
+                .min(Comparator.comparing((User u) -> !loginRequest.getUsername().equals(u.getUsername())))
                 .orElse(null);
             
-            // Also try to find by email if not found by username
-            if (user == null) {
-                user = userRepository.findByEmail(loginRequest.getUsername())
-                    .orElse(null);
-            }
-            
             if (user == null) {
                 throw new RuntimeException("Invalid username or password");
             }
@@ -78,45 +84,78 @@ public class AuthService {
                 throw new RuntimeException("Your account has been deactivated. Please contact administrator.");
             }
             
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
-            );
-            
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
-            
-            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-            User authenticatedUser = userRepository.findByUsername(userPrincipal.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            // Double-check status after authentication
-            if (authenticatedUser.getStatus() != User.UserStatus.ACTIVE) {
-                throw new RuntimeException("Your account has been deactivated. Please contact administrator.");
+            // BCrypt runs on its own bounded pool, not on the request thread
+            if (!passwordHashingExecutor.matches(loginRequest.getPassword(), user.getPassword())) {
+                throw new org.springframework.security.authentication.BadCredentialsException("Bad credentials");
             }
             
-            LocalDateTime expiresAt = LocalDateTime.now().plusDays(1); // JWT expires in 1 day
+            // Transparently upgrade hashes created with a lower BCrypt cost than the configured one
+            if (passwordHashingExecutor.needsRehash(user.getPassword())) {
+                try {
+                    user.setPassword(passwordHashingExecutor.encode(loginRequest.getPassword()));
+                    user = userRepository.save(user);
+                } catch (PasswordHashingExecutor.BusyException e) {
+                    // The password is already verified; the upgrade is retried on a later sign-in
+                    logger.debug("Skipped password rehash for user {}: hashing pool busy", user.getId());
+                }
+            }
             
-            return new JwtResponseDto(
-                jwt,
-                authenticatedUser.getId(),
-                authenticatedUser.getUsername(),
-                authenticatedUser.getEmail(),
-                authenticatedUser.getFirstName(),
-                authenticatedUser.getLastName(),
-                authenticatedUser.getRole().name(),
-                expiresAt
-            );
+            return issueToken(user);
         } catch (org.springframework.security.authentication.DisabledException e) {
             throw new RuntimeException("Your account has been deactivated. Please contact administrator.");
         } catch (org.springframework.security.authentication.BadCredentialsException e) {
             throw new RuntimeException("Invalid username or password");
+        } catch (PasswordHashingExecutor.BusyException e) {
+            // Only a busy password check gets here; passed on as is so the caller can answer 503 rather than a failed sign-in
+            throw e;
         } catch (Exception e) {
-            System.err.println("Authentication error: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Authentication error for {}: {}", loginRequest.getUsername(), e.getMessage(), e);
             throw new RuntimeException("Authentication failed: " + e.getMessage());
         }
     }
     
+    /**
+     * Signs the user in and issues a token carrying the user's current token version.
+     */
+    public JwtResponseDto issueToken(User user) {
+        UserPrincipal userPrincipal = UserPrincipal.create(user);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            userPrincipal, null, userPrincipal.getAuthorities()
+        );
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        String jwt = jwtUtils.generateJwtToken(authentication, user.getTokenVersion());
+        
+        LocalDateTime expiresAt = LocalDateTime.now().plusDays(1); // JWT expires in 1 day
+        
+        return new JwtResponseDto(
+            jwt,
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFirstName(),
+            user.getLastName(),
+            user.getRole().name(),
+            expiresAt
+        );
+    }
+    
+    /**
+     * Short-lived token that opens the activity stream, for EventSource clients that cannot send
+     * an Authorization header. It is only accepted by /api/activities/stream.
+     */
+    public String issueStreamToken(String token) {
+        Claims claims = jwtUtils.getClaimsFromJwtToken(token);
+        if (claims == null || !jwtUtils.hasEmbeddedPrincipal(claims)) {
+            throw new RuntimeException("Invalid JWT token");
+        }
+        return jwtUtils.generateScopedToken(claims, JwtUtils.SCOPE_ACTIVITY_STREAM, streamTokenTtlSeconds * 1000);
+    }
+    
+    public long getStreamTokenTtlSeconds() {
+        return streamTokenTtlSeconds;
+    }
+    
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -134,18 +173,23 @@ public class AuthService {
             .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
     
+    @Transactional
     public User updateUserProfile(Long id, UserUpdateDto updateDto) {
         User user = findById(id);
+        boolean credentialsChanged = false;
         
         // Update basic fields
         if (updateDto.getUsername() != null && !updateDto.getUsername().isEmpty()) {
+            credentialsChanged |= !updateDto.getUsername().equals(user.getUsername());
             user.setUsername(updateDto.getUsername());
         }
         if (updateDto.getEmail() != null && !updateDto.getEmail().isEmpty()) {
+            credentialsChanged |= !updateDto.getEmail().equals(user.getEmail());
             user.setEmail(updateDto.getEmail());
         }
         if (updateDto.getPassword() != null && !updateDto.getPassword().isEmpty()) {
-            user.setPassword(passwordEncoder.encode(updateDto.getPassword()));
+            credentialsChanged = true;
+            user.setPassword(passwordHashingExecutor.encode(updateDto.getPassword()));
         }
         if (updateDto.getFirstName() != null && !updateDto.getFirstName().isEmpty()) {
             user.setFirstName(updateDto.getFirstName());
@@ -163,7 +207,15 @@ public class AuthService {
             user.setProfileImageUrl(updateDto.getProfileImageUrl());
         }
         
-        return userRepository.save(user);
+        // Username, email and password are baked into issued tokens, so old tokens must stop working
+        if (credentialsChanged) {
+            user.revokeTokens();
+        }
+        User savedUser = userRepository.save(user);
+        if (credentialsChanged) {
+            tokenVersionRegistry.evict(savedUser.getId());
+        }
+        return savedUser;
     }
     
     public User updateUser(Long id, UserRegistrationDto updateDto) {
@@ -185,9 +237,12 @@ public class AuthService {
         return userRepository.save(user);
     }
     
+    @Transactional
     public void deleteUser(Long id) {
         User user = findById(id);
         user.setStatus(User.UserStatus.INACTIVE);
+        user.revokeTokens();
         userRepository.save(user);
+        tokenVersionRegistry.evict(user.getId());
     }
 }
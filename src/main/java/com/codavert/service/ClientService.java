@@ -6,25 +6,24 @@ import com.codavert.dto.InvoiceDto;
 import com.codavert.dto.ProjectDocumentDto;
 import com.codavert.dto.ProjectDto;
 import com.codavert.entity.Client;
-import com.codavert.entity.Invoice;
-import com.codavert.entity.Project;
-import com.codavert.entity.ProjectDocument;
 import com.codavert.entity.User;
 import com.codavert.repository.ClientRepository;
 import com.codavert.repository.InvoiceRepository;
+import com.codavert.repository.InvoiceRepository.InvoiceListItem;
 import com.codavert.repository.ProjectDocumentRepository;
 import com.codavert.repository.ProjectRepository;
 import com.codavert.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class ClientService {
@@ -44,6 +43,15 @@ public class ClientService {
     @Autowired
     private ProjectDocumentRepository documentRepository;
     
+    @Autowired
+    private DatabaseSearchMode searchMode;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Value("${client-details.section-size:10}")
+    private int sectionSize;
+    
     public Client createClient(ClientDto clientDto, Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -70,7 +78,9 @@ public class ClientService {
             client.setType(Client.ClientType.valueOf(clientDto.getType()));
         }
         
-        return clientRepository.save(client);
+        Client saved = clientRepository.save(client);
+        dashboardService.invalidate(userId);
+        return saved;
     }
     
     public Page<Client> getAllClientsByUserId(Long userId, Pageable pageable) {
@@ -113,7 +123,9 @@ public class ClientService {
             client.setType(Client.ClientType.valueOf(clientDto.getType()));
         }
         
-        return clientRepository.save(client);
+        Client saved = clientRepository.save(client);
+        dashboardService.invalidate(saved.getUser().getId());
+        return saved;
     }
     
     public void deleteClient(Long id) {
@@ -122,9 +134,14 @@ public class ClientService {
         
         client.setStatus(Client.ClientStatus.INACTIVE);
         clientRepository.save(client);
+        dashboardService.invalidate(client.getUser().getId());
     }
     
     public Page<Client> searchClients(Long userId, String searchTerm, Pageable pageable) {
+        if (searchMode.isTrigram()) {
+            return clientRepository.searchClientsByUserIdRanked(userId, DatabaseSearchMode.term(searchTerm),
+                DatabaseSearchMode.containsPattern(searchTerm), DatabaseSearchMode.unsorted(pageable));
+        }
         return clientRepository.searchClientsByUserId(userId, searchTerm, pageable);
     }
     
@@ -144,79 +161,83 @@ public class ClientService {
         return clientRepository.countByUserIdAndStatus(userId, Client.ClientStatus.valueOf(status));
     }
     
+    /**
+     * Client with its statistics and the first page of each section. The statistics are counted
+     * by aggregate queries; the sections are summary rows (no TEXT columns or document content),
+     * newest first, and the rest of each is served by the paged section methods below.
+     */
     public ClientDetailDto getClientDetails(Long clientId, Long userId) {
-        Client client = clientRepository.findById(clientId)
-            .orElseThrow(() -> new RuntimeException("Client not found with id: " + clientId));
+        Client client = getOwnedClient(clientId, userId);
         
-        // Verify ownership
-        if (!client.getUser().getId().equals(userId)) {
-            throw new RuntimeException("Unauthorized: Client does not belong to user");
-        }
-        
-        // Get related entities
-        List<Project> projects = projectRepository.findByClientId(clientId);
-        List<Invoice> invoices = invoiceRepository.findByClientId(clientId);
-        List<ProjectDocument> documents = documentRepository.findByClientIdAndUserId(clientId, userId);
+        ProjectRepository.ClientProjectCounts projectCounts = projectRepository.getClientProjectCounts(clientId);
+        InvoiceRepository.ClientInvoiceTotals invoiceTotals = invoiceRepository.getClientInvoiceTotals(clientId, LocalDate.now());
+        Page<ProjectDocumentDto> documents = getClientDocuments(client, userId, PageRequest.of(0, sectionSize));
         
-        // Calculate statistics
         ClientDetailDto.ClientStatisticsDto statistics = new ClientDetailDto.ClientStatisticsDto();
-        statistics.setTotalProjects((long) projects.size());
-        statistics.setActiveProjects(projects.stream()
-            .filter(p -> p.getStatus() == Project.ProjectStatus.IN_PROGRESS)
-            .count());
-        statistics.setCompletedProjects(projects.stream()
-            .filter(p -> p.getStatus() == Project.ProjectStatus.COMPLETED)
-            .count());
-        
-        statistics.setTotalInvoices((long) invoices.size());
-        statistics.setPaidInvoices(invoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PAID)
-            .count());
-        statistics.setPendingInvoices(invoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.SENT || 
-                         i.getStatus() == Invoice.InvoiceStatus.VIEWED ||
-                         i.getStatus() == Invoice.InvoiceStatus.DRAFT)
-            .count());
-        statistics.setOverdueInvoices(invoices.stream()
-            .filter(i -> i.getDueDate() != null && 
-                         i.getDueDate().isBefore(LocalDate.now()) &&
-                         i.getStatus() != Invoice.InvoiceStatus.PAID)
-            .count());
-        
-        statistics.setTotalRevenue(invoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PAID && i.getTotalAmount() != null)
-            .map(Invoice::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
-        
-        statistics.setPendingRevenue(invoices.stream()
-            .filter(i -> i.getStatus() != Invoice.InvoiceStatus.PAID && i.getTotalAmount() != null)
-            .map(Invoice::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add));
-        
-        statistics.setTotalDocuments((long) documents.size());
-        
-        // Map to DTOs
-        ClientDto clientDto = mapToClientDto(client);
-        List<ProjectDto> projectDtos = projects.stream()
-            .map(this::mapToProjectDto)
-            .collect(Collectors.toList());
-        List<InvoiceDto> invoiceDtos = invoices.stream()
-            .map(this::mapToInvoiceDto)
-            .collect(Collectors.toList());
-        List<ProjectDocumentDto> documentDtos = documents.stream()
-            .map(this::mapToDocumentDto)
-            .collect(Collectors.toList());
+        statistics.setTotalProjects(projectCounts.getTotal());
+        statistics.setActiveProjects(projectCounts.getActive());
+        statistics.setCompletedProjects(projectCounts.getCompleted());
+        statistics.setTotalInvoices(invoiceTotals.getTotal());
+        statistics.setPaidInvoices(invoiceTotals.getPaid());
+        statistics.setPendingInvoices(invoiceTotals.getPending());
+        statistics.setOverdueInvoices(invoiceTotals.getOverdue());
+        statistics.setTotalRevenue(invoiceTotals.getRevenue());
+        statistics.setPendingRevenue(invoiceTotals.getPendingRevenue());
+        statistics.setTotalDocuments(documents.getTotalElements());
         
         ClientDetailDto detailDto = new ClientDetailDto();
-        detailDto.setClient(clientDto);
+        detailDto.setClient(mapToClientDto(client));
         detailDto.setStatistics(statistics);
-        detailDto.setProjects(projectDtos);
-        detailDto.setInvoices(invoiceDtos);
-        detailDto.setDocuments(documentDtos);
+        detailDto.setProjects(getClientProjects(client, PageRequest.of(0, sectionSize)).getContent());
+        detailDto.setInvoices(getClientInvoices(client, PageRequest.of(0, sectionSize)).getContent());
+        detailDto.setDocuments(documents.getContent());
         
         return detailDto;
     }
     
+    public Page<ProjectDto> getClientProjects(Long clientId, Long userId, Pageable pageable) {
+        return getClientProjects(getOwnedClient(clientId, userId), pageable);
+    }
+    
+    public Page<InvoiceDto> getClientInvoices(Long clientId, Long userId, Pageable pageable) {
+        return getClientInvoices(getOwnedClient(clientId, userId), pageable);
+    }
+    
+    public Page<ProjectDocumentDto> getClientDocuments(Long clientId, Long userId, Pageable pageable) {
+        return getClientDocuments(getOwnedClient(clientId, userId), userId, pageable);
+    }
+    
+    private Client getOwnedClient(Long clientId, Long userId) {
+        Client client = clientRepository.findById(clientId)
+            .orElseThrow(() -> new RuntimeException("Client not found with id: " + clientId));
+        
+        // Verify ownership
+        if (!client.getUser().getId().equals(userId)) {
+            throw new RuntimeException("Unauthorized: Client does not belong to user");
+        }
+        return client;
+    }
+    
+    private Page<ProjectDto> getClientProjects(Client client, Pageable pageable) {
+        return projectRepository.findSummariesByClientId(client.getId(), newestFirst(pageable))
+            .map(project -> mapToProjectDto(project, client));
+    }
+    
+    private Page<InvoiceDto> getClientInvoices(Client client, Pageable pageable) {
+        return invoiceRepository.findListItemsByClientId(client.getId(), newestFirst(pageable))
+            .map(invoice -> mapToInvoiceDto(invoice, client));
+    }
+    
+    private Page<ProjectDocumentDto> getClientDocuments(Client client, Long userId, Pageable pageable) {
+        return documentRepository.findSummariesByClientIdAndUserId(client.getId(), userId, newestFirst(pageable))
+            .map(document -> mapToDocumentDto(document, userId));
+    }
+    
+    private static Pageable newestFirst(Pageable pageable) {
+        return pageable.getSort().isSorted() ? pageable
+            : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Direction.DESC, "id"));
+    }
+    
     private ClientDto mapToClientDto(Client client) {
         ClientDto dto = new ClientDto();
         dto.setId(client.getId());
@@ -236,14 +257,14 @@ public class ClientService {
         return dto;
     }
     
-    private ProjectDto mapToProjectDto(Project project) {
+    private ProjectDto mapToProjectDto(ProjectRepository.ProjectSummary project, Client client) {
         ProjectDto dto = new ProjectDto();
         dto.setId(project.getId());
         dto.setTitle(project.getTitle());
         dto.setName(project.getTitle()); // Alias for frontend
-        dto.setDescription(project.getDescription());
         dto.setStatus(project.getStatus() != null ? project.getStatus().name() : null);
         dto.setType(project.getType() != null ? project.getType().name() : null);
+        dto.setTypes(project.getTypes());
         dto.setPriority(project.getPriority() != null ? project.getPriority().name() : null);
         dto.setStartDate(project.getStartDate());
         dto.setEndDate(project.getEndDate());
@@ -251,15 +272,13 @@ public class ClientService {
         dto.setActualHours(project.getActualHours());
         dto.setBudget(project.getBudget());
         dto.setHourlyRate(project.getHourlyRate());
-        dto.setRequirements(project.getRequirements());
-        dto.setDeliverables(project.getDeliverables());
         dto.setTechnologies(project.getTechnologies());
-        dto.setClientId(project.getClient() != null ? project.getClient().getId() : null);
-        dto.setClientName(project.getClient() != null ? project.getClient().getCompanyName() : null);
+        dto.setClientId(client.getId());
+        dto.setClientName(client.getCompanyName());
         return dto;
     }
     
-    private InvoiceDto mapToInvoiceDto(Invoice invoice) {
+    private InvoiceDto mapToInvoiceDto(InvoiceListItem invoice, Client client) {
         InvoiceDto dto = new InvoiceDto();
         dto.setId(invoice.getId());
         dto.setInvoiceNumber(invoice.getInvoiceNumber());
@@ -268,18 +287,16 @@ public class ClientService {
         dto.setSubtotal(invoice.getSubtotal());
         dto.setTaxAmount(invoice.getTaxAmount());
         dto.setTotalAmount(invoice.getTotalAmount());
-        dto.setNotes(invoice.getNotes());
-        dto.setPaymentTerms(invoice.getPaymentTerms());
         dto.setPaidDate(invoice.getPaidDate());
-        dto.setPaymentMethod(invoice.getPaymentMethod());
+        dto.setAmountReceived(invoice.getAmountReceived());
         dto.setStatus(invoice.getStatus() != null ? invoice.getStatus().name() : null);
-        dto.setClientId(invoice.getClient() != null ? invoice.getClient().getId() : null);
-        dto.setProjectId(invoice.getProject() != null ? invoice.getProject().getId() : null);
-        dto.setUserId(invoice.getUser() != null ? invoice.getUser().getId() : null);
+        dto.setClientId(client.getId());
+        dto.setProjectId(invoice.getProjectId());
+        dto.setUserId(client.getUser().getId());
         return dto;
     }
     
-    private ProjectDocumentDto mapToDocumentDto(ProjectDocument document) {
+    private ProjectDocumentDto mapToDocumentDto(ProjectDocumentRepository.DocumentSummary document, Long userId) {
         ProjectDocumentDto dto = new ProjectDocumentDto();
         dto.setId(document.getId());
         dto.setTitle(document.getTitle());
@@ -290,13 +307,11 @@ public class ClientService {
         dto.setFileName(document.getFileName());
         dto.setFileType(document.getFileType());
         dto.setFileSize(document.getFileSize());
-        dto.setContent(document.getContent());
-        dto.setTemplate(document.getTemplate());
         dto.setCreatedAt(document.getCreatedAt());
         dto.setUpdatedAt(document.getUpdatedAt());
-        dto.setProjectId(document.getProject() != null ? document.getProject().getId() : null);
-        dto.setProjectTitle(document.getProject() != null ? document.getProject().getTitle() : null);
-        dto.setUserId(document.getUser() != null ? document.getUser().getId() : null);
+        dto.setProjectId(document.getProjectId());
+        dto.setProjectTitle(document.getProjectTitle());
+        dto.setUserId(userId);
         return dto;
     }
 }
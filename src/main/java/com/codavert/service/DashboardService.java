@@ -0,0 +1,274 @@
+package com.codavert.service;
+
+import com.codavert.dto.DashboardDto;
+import com.codavert.entity.Client;
+import com.codavert.entity.Invoice;
+import com.codavert.entity.Project;
+import com.codavert.entity.ProjectTask;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Everything the dashboard shows in one call: project, client, invoice and task figures, each
+ * from one query grouped by status. The four queries run in parallel on a small pool of their
+ * own, which also caps how many connections dashboards take at once. The pool's queue is bounded
+ * and a dashboard waits a limited time for its queries; when the pool is saturated or the queries
+ * take too long, the request fails with a BusyException instead of piling up.
+ *
+ * Results are kept per user for a short time, and dropped early when one of the user's
+ * projects, clients, invoices or tasks is written.
+ */
+@Service
+public class DashboardService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${dashboard.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    @Value("${dashboard.query-threads:4}")
+    private int queryThreads;
+
+    @Value("${dashboard.query-queue-size:64}")
+    private int queryQueueSize;
+
+    @Value("${dashboard.query-timeout-ms:10000}")
+    private long queryTimeoutMs;
+
+    private ExecutorService queryExecutor;
+
+    @Autowired
+    private SnapshotCaches snapshotCaches;
+
+    private SnapshotCache<Long, DashboardDto> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = snapshotCaches.create();
+        AtomicInteger threadCount = new AtomicInteger();
+        queryExecutor = new ThreadPoolExecutor(queryThreads, queryThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queryQueueSize), runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queryExecutor.shutdown();
+    }
+
+    public DashboardDto getDashboard(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return cache.get(userId, now.plusSeconds(cacheTtlSeconds), () -> load(userId, now));
+    }
+
+    /**
+     * Drops the cached dashboard of the user; call after any of the user's projects, clients or invoices is written.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+    }
+
+    /**
+     * Drops the cached dashboard of the project's owner; call after any task of the project is written.
+     */
+    public void invalidateProject(Project project) {
+        if (project != null && project.getUser() != null) {
+            invalidate(project.getUser().getId());
+        }
+    }
+
+    private DashboardDto load(Long userId, LocalDateTime now) {
+        List<CompletableFuture<?>> queries = new ArrayList<>(4);
+        CompletableFuture<DashboardDto.ProjectSummaryDto> projects = supply(queries, () -> loadProjects(userId));
+        CompletableFuture<DashboardDto.ClientSummaryDto> clients = supply(queries, () -> loadClients(userId));
+        CompletableFuture<DashboardDto.InvoiceSummaryDto> invoices = supply(queries, () -> loadInvoices(userId));
+        CompletableFuture<DashboardDto.TaskSummaryDto> tasks = supply(queries, () -> loadTasks(userId, now.toLocalDate()));
+
+        try {
+            CompletableFuture.allOf(projects, clients, invoices, tasks).get(queryTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancel(queries);
+            throw new BusyException("Dashboard queries did not finish within " + queryTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            cancel(queries);
+            Thread.currentThread().interrupt();
+            throw new BusyException("Interrupted while loading the dashboard");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+
+        DashboardDto dashboard = new DashboardDto();
+        dashboard.setGeneratedAt(now);
+        dashboard.setProjects(projects.join());
+        dashboard.setClients(clients.join());
+        dashboard.setInvoices(invoices.join());
+        dashboard.setTasks(tasks.join());
+        return dashboard;
+    }
+
+    private DashboardDto.ProjectSummaryDto loadProjects(Long userId) {
+        Map<String, Long> counts = zeroCounts(Project.ProjectStatus.values());
+        Map<String, BigDecimal> budgets = zeroAmounts(Project.ProjectStatus.values());
+        DashboardDto.ProjectSummaryDto summary = new DashboardDto.ProjectSummaryDto();
+        summary.setTotalBudget(BigDecimal.ZERO);
+        jdbcTemplate.query(
+            "SELECT status, COUNT(*), SUM(budget) FROM projects WHERE user_id = ? GROUP BY status",
+            (RowCallbackHandler) rs -> {
+                BigDecimal budget = orZero(rs.getBigDecimal(3));
+                put(counts, rs.getString(1), rs.getLong(2));
+                put(budgets, rs.getString(1), budget);
+                summary.setTotal(summary.getTotal() + rs.getLong(2));
+                summary.setTotalBudget(summary.getTotalBudget().add(budget));
+            }, userId);
+        summary.setByStatus(counts);
+        summary.setBudgetByStatus(budgets);
+        return summary;
+    }
+
+    private DashboardDto.ClientSummaryDto loadClients(Long userId) {
+        Map<String, Long> counts = zeroCounts(Client.ClientStatus.values());
+        DashboardDto.ClientSummaryDto summary = new DashboardDto.ClientSummaryDto();
+        jdbcTemplate.query(
+            "SELECT status, COUNT(*) FROM clients WHERE user_id = ? GROUP BY status",
+            (RowCallbackHandler) rs -> {
+                put(counts, rs.getString(1), rs.getLong(2));
+                summary.setTotal(summary.getTotal() + rs.getLong(2));
+            }, userId);
+        summary.setByStatus(counts);
+        return summary;
+    }
+
+    private DashboardDto.InvoiceSummaryDto loadInvoices(Long userId) {
+        Map<String, Long> counts = zeroCounts(Invoice.InvoiceStatus.values());
+        Map<String, BigDecimal> amounts = zeroAmounts(Invoice.InvoiceStatus.values());
+        DashboardDto.InvoiceSummaryDto summary = new DashboardDto.InvoiceSummaryDto();
+        summary.setTotalPaid(BigDecimal.ZERO);
+        summary.setTotalOutstanding(BigDecimal.ZERO);
+        jdbcTemplate.query(
+            "SELECT status, COUNT(*), SUM(total_amount), SUM(total_amount - COALESCE(amount_received, 0)) " +
+            "FROM invoices WHERE user_id = ? GROUP BY status",
+            (RowCallbackHandler) rs -> {
+                String status = rs.getString(1);
+                BigDecimal amount = orZero(rs.getBigDecimal(3));
+                put(counts, status, rs.getLong(2));
+                put(amounts, status, amount);
+                summary.setTotal(summary.getTotal() + rs.getLong(2));
+                if (Invoice.InvoiceStatus.PAID.name().equals(status)) {
+                    summary.setTotalPaid(summary.getTotalPaid().add(amount));
+                } else if (Invoice.InvoiceStatus.SENT.name().equals(status) || Invoice.InvoiceStatus.VIEWED.name().equals(status)
+                        || Invoice.InvoiceStatus.OVERDUE.name().equals(status)) {
+                    summary.setTotalOutstanding(summary.getTotalOutstanding().add(orZero(rs.getBigDecimal(4))));
+                }
+            }, userId);
+        summary.setByStatus(counts);
+        summary.setAmountByStatus(amounts);
+        return summary;
+    }
+
+    private DashboardDto.TaskSummaryDto loadTasks(Long userId, LocalDate today) {
+        Map<String, Long> counts = zeroCounts(ProjectTask.TaskStatus.values());
+        DashboardDto.TaskSummaryDto summary = new DashboardDto.TaskSummaryDto();
+        jdbcTemplate.query(
+            "SELECT t.status, COUNT(*), " +
+            "SUM(CASE WHEN t.due_date < ? AND t.status NOT IN ('COMPLETED', 'CANCELLED') THEN 1 ELSE 0 END) " +
+            "FROM project_tasks t JOIN projects p ON p.id = t.project_id WHERE p.user_id = ? GROUP BY t.status",
+            (RowCallbackHandler) rs -> {
+                put(counts, rs.getString(1), rs.getLong(2));
+                summary.setTotal(summary.getTotal() + rs.getLong(2));
+                summary.setOverdue(summary.getOverdue() + rs.getLong(3));
+            }, Date.valueOf(today), userId);
+        summary.setByStatus(counts);
+        return summary;
+    }
+
+    // Queues the query, or cancels the ones queued before it and fails when the pool's queue is full
+    private <T> CompletableFuture<T> supply(List<CompletableFuture<?>> queries, Supplier<T> query) {
+        try {
+            CompletableFuture<T> future = CompletableFuture.supplyAsync(query, queryExecutor);
+            queries.add(future);
+            return future;
+        } catch (RejectedExecutionException e) {
+            cancel(queries);
+            throw new BusyException("Too many dashboards are loading; try again shortly");
+        }
+    }
+
+    // Queries still queued are skipped; running ones finish but their results are dropped
+    private static void cancel(List<CompletableFuture<?>> queries) {
+        for (CompletableFuture<?> query : queries) {
+            query.cancel(false);
+        }
+    }
+
+    // Every status is listed, in declaration order, so the dashboard need not fill in missing ones
+    private static Map<String, Long> zeroCounts(Enum<?>[] statuses) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Enum<?> status : statuses) {
+            counts.put(status.name(), 0L);
+        }
+        return counts;
+    }
+
+    private static Map<String, BigDecimal> zeroAmounts(Enum<?>[] statuses) {
+        Map<String, BigDecimal> amounts = new LinkedHashMap<>();
+        for (Enum<?> status : statuses) {
+            amounts.put(status.name(), BigDecimal.ZERO);
+        }
+        return amounts;
+    }
+
+    // Rows without a status are left out of the per-status figures but still count towards the totals
+    private static <V> void put(Map<String, V> byStatus, String status, V value) {
+        if (status != null) {
+            byStatus.put(status, value);
+        }
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
+    /**
+     * The dashboard could not be loaded because the query pool is saturated or the queries
+     * timed out; the request may be retried.
+     */
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+}
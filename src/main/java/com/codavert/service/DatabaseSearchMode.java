@@ -0,0 +1,110 @@
+package com.codavert.service;
+
+import com.codavert.config.DatabasePlatform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * How the client, project, document and user search endpoints query the database. In the default
+ * "like" mode they use the plain LIKE queries, which scan the table. In "trigram" mode on
+ * PostgreSQL, pg_trgm GIN indexes on the lower-cased search columns serve the same substring
+ * match, and results are ranked by word similarity to the search term instead of the requested
+ * sort. Terms shorter than three characters cannot use the indexes and still scan.
+ *
+ * The indexes are built by SEARCH_TRIGRAM_INDEXES.sql (CREATE INDEX CONCURRENTLY, run with psql),
+ * not at startup. Trigram mode only takes effect once all of them exist and are valid; until
+ * then, checked once at startup, the LIKE queries stay in use.
+ *
+ * H2 (local runs) has no expression or trigram indexes, so it always uses the LIKE queries.
+ */
+@Service
+public class DatabaseSearchMode {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseSearchMode.class);
+
+    // Table and lower-cased columns searched by each query
+    private static final String[][] SEARCH_COLUMNS = {
+        {"clients", "company_name", "contact_person", "email"},
+        {"projects", "title", "description", "technologies"},
+        {"project_documents", "title", "description"},
+        {"users", "first_name", "last_name", "username", "email"}
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Value("${search.database-mode:like}")
+    private String mode;
+
+    private volatile Boolean indexesReady;
+
+    public boolean isTrigram() {
+        return "trigram".equalsIgnoreCase(mode) && databasePlatform.isPostgres() && hasIndexes();
+    }
+
+    /**
+     * Checks, when trigram mode is on, that the indexes of SEARCH_TRIGRAM_INDEXES.sql are in place
+     * and logs which search is used; run at startup.
+     */
+    public void checkIndexes() {
+        if (!"trigram".equalsIgnoreCase(mode)) {
+            return;
+        }
+        if (!databasePlatform.isPostgres()) {
+            logger.info("Trigram search needs PostgreSQL; using LIKE search");
+            return;
+        }
+        if (hasIndexes()) {
+            logger.info("Trigram search indexes are in place");
+        }
+    }
+
+    private boolean hasIndexes() {
+        if (indexesReady == null) {
+            List<String> missing = new ArrayList<>();
+            for (String[] table : SEARCH_COLUMNS) {
+                for (int i = 1; i < table.length; i++) {
+                    missing.add(String.format("idx_%s_%s_trgm", table[0], table[i]));
+                }
+            }
+            // An interrupted CREATE INDEX CONCURRENTLY leaves an invalid index, which does not count
+            missing.removeAll(jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "WHERE c.relname LIKE 'idx\\_%\\_trgm' AND i.indisvalid", String.class));
+            if (!missing.isEmpty()) {
+                logger.warn("Trigram search indexes missing or invalid ({}); run SEARCH_TRIGRAM_INDEXES.sql and restart. Using LIKE search",
+                    String.join(", ", missing));
+            }
+            indexesReady = missing.isEmpty();
+        }
+        return indexesReady;
+    }
+
+    // Lower-cased term, as compared against the lower-cased columns
+    public static String term(String searchTerm) {
+        return searchTerm.toLowerCase(Locale.ROOT);
+    }
+
+    // LIKE pattern matching the term anywhere, with the term's own wildcards taken literally
+    public static String containsPattern(String searchTerm) {
+        return "%" + term(searchTerm).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    // Ranked queries order by similarity, so only the page itself is taken from the request
+    public static Pageable unsorted(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : pageable;
+    }
+}
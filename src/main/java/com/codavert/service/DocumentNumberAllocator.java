@@ -0,0 +1,202 @@
+package com.codavert.service;
+
+import com.codavert.config.DatabasePlatform;
+import com.codavert.entity.DocumentNumberCounter.DocumentType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hands out invoice, MOU, proposal and SRS numbers, counted per user and document type. Each
+ * counter is a row in document_number_counters that is moved forward atomically by a block of
+ * numbers at a time; the block is then used up from memory, so only one create per block touches
+ * the counter row. Numbers of a block that is not used up before a restart are skipped, as are
+ * numbers taken by a create that then fails. Concurrent creates that all find the block used up
+ * each reserve their own, one after the other on the counter row.
+ *
+ * A counter is started above the highest number the user already has, found with a one-time scan
+ * of the document table.
+ */
+@Service
+public class DocumentNumberAllocator {
+
+    private static final String WHERE_KEY = " WHERE user_id = ? AND document_type = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Value("${document-numbers.block-size:20}")
+    private int blockSize;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<List<Object>, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * Next number for the user and type. A block is reserved on the caller's transaction (or a
+     * transaction of its own), and its remaining numbers are only handed out once that commits,
+     * so a rollback cannot leave numbers in memory that the counter no longer covers.
+     */
+    public String allocate(Long userId, DocumentType type) {
+        Block block = blockFor(userId, type);
+        synchronized (block) {
+            if (block.hasNext()) {
+                return format(type, block.take());
+            }
+        }
+
+        // Outside the lock, so no create waits in memory for another while holding a database connection
+        Long first = transactionTemplate.execute(status -> {
+            long reserved = reserveBlock(userId, type);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (block) {
+                        block.add(reserved + 1, reserved + blockSize);
+                    }
+                }
+            });
+            return reserved;
+        });
+        return format(type, first);
+    }
+
+    /**
+     * The number the next allocate call is expected to return, without using it up.
+     */
+    public String peek(Long userId, DocumentType type) {
+        Block block = blockFor(userId, type);
+        synchronized (block) {
+            if (block.hasNext()) {
+                return format(type, block.ranges.get(0)[0]);
+            }
+        }
+        List<Long> counter = jdbcTemplate.queryForList(
+            "SELECT next_value FROM document_number_counters" + WHERE_KEY, Long.class, userId, type.name());
+        return format(type, counter.isEmpty() ? highestExisting(userId, type) + 1 : counter.get(0));
+    }
+
+    /**
+     * Keeps allocation clear of a number that was entered by hand. Numbers not in the type's
+     * own format are ignored.
+     */
+    public void observe(Long userId, DocumentType type, String number) {
+        long value = parse(type, number);
+        if (value <= 0) {
+            return;
+        }
+        Block block = blockFor(userId, type);
+        synchronized (block) {
+            for (long[] range : block.ranges) {
+                if (value >= range[0] && value < range[1]) {
+                    range[0] = value + 1;
+                }
+            }
+            block.ranges.removeIf(range -> range[0] >= range[1]);
+        }
+        jdbcTemplate.update("UPDATE document_number_counters SET next_value = ?" + WHERE_KEY + " AND next_value <= ?",
+            value + 1, userId, type.name(), value);
+    }
+
+    private Block blockFor(Long userId, DocumentType type) {
+        return blocks.computeIfAbsent(List.of(userId, type), key -> new Block());
+    }
+
+    // First number of a newly reserved block; must run in a transaction
+    private long reserveBlock(Long userId, DocumentType type) {
+        String increment = "UPDATE document_number_counters SET next_value = next_value + ?" + WHERE_KEY;
+        if (jdbcTemplate.update(increment, blockSize, userId, type.name()) == 0) {
+            // No counter yet: start one after the user's existing documents, unless another instance just did
+            long first = highestExisting(userId, type) + 1;
+            if (databasePlatform.isPostgres()) {
+                jdbcTemplate.update(
+                    "INSERT INTO document_number_counters (user_id, document_type, next_value) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (user_id, document_type) DO NOTHING",
+                    userId, type.name(), first);
+            } else {
+                // Without ON CONFLICT (H2 in local runs), where a failed statement leaves the transaction usable
+                try {
+                    jdbcTemplate.update(
+                        "INSERT INTO document_number_counters (user_id, document_type, next_value) VALUES (?, ?, ?)",
+                        userId, type.name(), first);
+                } catch (DuplicateKeyException e) {
+                    // Created concurrently
+                }
+            }
+            jdbcTemplate.update(increment, blockSize, userId, type.name());
+        }
+        Long end = jdbcTemplate.queryForObject(
+            "SELECT next_value FROM document_number_counters" + WHERE_KEY, Long.class, userId, type.name());
+        return end - blockSize;
+    }
+
+    private long highestExisting(Long userId, DocumentType type) {
+        long[] highest = new long[1];
+        jdbcTemplate.query(
+            "SELECT " + type.getNumberColumn() + " FROM " + type.getTable() +
+            " WHERE user_id = ? AND " + type.getNumberColumn() + " LIKE ?",
+            (RowCallbackHandler) rs -> highest[0] = Math.max(highest[0], parse(type, rs.getString(1))),
+            userId, type.getPrefix() + "%");
+        return highest[0];
+    }
+
+    // Numeric part of a number in the type's format, or 0 for anything else
+    private static long parse(DocumentType type, String number) {
+        if (number == null || !number.startsWith(type.getPrefix())) {
+            return 0;
+        }
+        String digits = number.substring(type.getPrefix().length());
+        if (digits.isEmpty() || digits.length() > 18 || !digits.chars().allMatch(Character::isDigit)) {
+            return 0;
+        }
+        return Long.parseLong(digits);
+    }
+
+    private static String format(DocumentType type, long value) {
+        return String.format("%s%04d", type.getPrefix(), value);
+    }
+
+    // Reserved numbers not handed out yet, as [next, limit) ranges in ascending order; concurrent reservations each add one
+    private static final class Block {
+        private final List<long[]> ranges = new ArrayList<>();
+
+        private boolean hasNext() {
+            return !ranges.isEmpty();
+        }
+
+        private long take() {
+            long[] range = ranges.get(0);
+            long value = range[0]++;
+            if (range[0] >= range[1]) {
+                ranges.remove(0);
+            }
+            return value;
+        }
+
+        private void add(long next, long limit) {
+            if (next >= limit) {
+                return;
+            }
+            int index = 0;
+            while (index < ranges.size() && ranges.get(index)[0] < next) {
+                index++;
+            }
+            ranges.add(index, new long[] {next, limit});
+        }
+    }
+}
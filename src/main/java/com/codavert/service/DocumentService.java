@@ -7,6 +7,8 @@ import com.codavert.repository.ProjectDocumentRepository;
 import com.codavert.repository.ProjectRepository;
 import com.codavert.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -25,6 +27,9 @@ public class DocumentService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private DatabaseSearchMode searchMode;
+    
     public ProjectDocument createDocument(Long projectId, Long userId, String title, 
                                         String description, ProjectDocument.DocumentType type) {
         Project project = projectRepository.findById(projectId)
@@ -52,6 +57,14 @@ public class DocumentService {
         return documentRepository.findByUserId(userId);
     }
     
+    public Page<ProjectDocument> searchDocuments(Long userId, String searchTerm, Pageable pageable) {
+        if (searchMode.isTrigram()) {
+            return documentRepository.searchDocumentsByUserIdRanked(userId, DatabaseSearchMode.term(searchTerm),
+                DatabaseSearchMode.containsPattern(searchTerm), DatabaseSearchMode.unsorted(pageable));
+        }
+        return documentRepository.searchDocumentsByUserId(userId, searchTerm, pageable);
+    }
+    
     public Optional<ProjectDocument> getDocumentById(Long id) {
         return documentRepository.findById(id);
     }
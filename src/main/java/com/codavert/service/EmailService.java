@@ -4,6 +4,7 @@ import com.codavert.dto.ContactFormDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 
 @Service
 public class EmailService {
@@ -88,6 +90,35 @@ public class EmailService {
         }
     }
     
+    /**
+     * Send several plain text emails in one go, over a single connection to the mail server.
+     * The sender address is filled in here.
+     */
+    @Async
+    public void sendEmailBatch(List<SimpleMailMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (!isEmailConfigured()) {
+            logger.warn("Skipping batch of {} emails (not configured)", messages.size());
+            return;
+        }
+        
+        for (SimpleMailMessage message : messages) {
+            message.setFrom(fromEmail);
+        }
+        try {
+            logger.info("Sending batch of {} emails", messages.size());
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+            logger.info("✅ Batch of {} emails sent successfully", messages.size());
+        } catch (MailSendException e) {
+            // Messages not in the failed set went out
+            logger.error("Failed to send {} of {} emails in batch: {}", e.getFailedMessages().size(), messages.size(), e.getMessage());
+        } catch (Exception e) {
+            logger.error("Unexpected failure while sending batch of {} emails: {}", messages.size(), e.getMessage(), e);
+        }
+    }
+    
     /**
      * Send contact form notification email asynchronously
      * This runs in a separate thread so it doesn't block the HTTP response
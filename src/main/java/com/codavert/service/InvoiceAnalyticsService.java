@@ -0,0 +1,156 @@
+package com.codavert.service;
+
+import com.codavert.dto.InvoiceAnalyticsDto;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Revenue and receivables figures for a user's invoices, from one query grouped by client,
+ * invoice month and aging bucket with the amounts summed as exact decimals. Drafts and cancelled
+ * invoices are left out. Sent, viewed and overdue invoices are open: what is left to be received
+ * on them is outstanding, aged by days past the due date (invoices not yet due count as 0-30).
+ *
+ * Results are kept per user until one of the user's invoices is written. Aging depends on the
+ * date, so a result is only reused on the day it was computed.
+ */
+@Service
+public class InvoiceAnalyticsService {
+
+    private static final String[] AGING_BUCKETS = {"0-30", "31-60", "61-90", "90+"};
+
+    private static final String OPEN = "i.status IN ('SENT', 'VIEWED', 'OVERDUE')";
+
+    private static final String SQL =
+        "SELECT i.client_id, c.company_name, " +
+        "EXTRACT(YEAR FROM i.invoice_date) AS invoice_year, EXTRACT(MONTH FROM i.invoice_date) AS invoice_month, " +
+        "CASE WHEN " + OPEN + " THEN " +
+        "CASE WHEN i.due_date >= ? THEN 0 WHEN i.due_date >= ? THEN 1 WHEN i.due_date >= ? THEN 2 ELSE 3 END " +
+        "END AS aging_bucket, " +
+        "SUM(i.total_amount) AS invoiced, " +
+        "SUM(CASE WHEN i.status = 'PAID' THEN i.total_amount ELSE COALESCE(i.amount_received, 0) END) AS collected, " +
+        "SUM(CASE WHEN " + OPEN + " THEN i.total_amount - COALESCE(i.amount_received, 0) ELSE 0 END) AS outstanding, " +
+        "SUM(CASE WHEN " + OPEN + " THEN 1 ELSE 0 END) AS open_invoices " +
+        "FROM invoices i JOIN clients c ON c.id = i.client_id " +
+        "WHERE i.user_id = ? AND i.status NOT IN ('DRAFT', 'CANCELLED') " +
+        "GROUP BY 1, 2, 3, 4, 5";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${invoice-analytics.months:12}")
+    private int months;
+
+    @Value("${invoice-analytics.top-clients:5}")
+    private int topClients;
+
+    @Autowired
+    private SnapshotCaches snapshotCaches;
+
+    private SnapshotCache<Long, InvoiceAnalyticsDto> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = snapshotCaches.create();
+    }
+
+    public InvoiceAnalyticsDto getAnalytics(Long userId) {
+        LocalDate today = LocalDate.now();
+        return cache.get(userId, today.plusDays(1).atStartOfDay(), () -> load(userId, today));
+    }
+
+    /**
+     * Drops the cached analytics of the user; call after any of the user's invoices is created, changed or cancelled.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.invalidate(userId);
+    }
+
+    private InvoiceAnalyticsDto load(Long userId, LocalDate today) {
+        YearMonth lastMonth = YearMonth.from(today);
+        YearMonth firstMonth = lastMonth.minusMonths(months - 1);
+        Map<YearMonth, BigDecimal[]> byMonth = new LinkedHashMap<>();
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            byMonth.put(month, new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+        }
+        BigDecimal[] agingAmounts = {BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
+        long[] agingCounts = new long[AGING_BUCKETS.length];
+        Map<Long, InvoiceAnalyticsDto.ClientOutstandingDto> clients = new HashMap<>();
+        BigDecimal[] totals = {BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
+
+        jdbcTemplate.query(SQL, (RowCallbackHandler) rs -> {
+            BigDecimal invoiced = orZero(rs.getBigDecimal("invoiced"));
+            BigDecimal collected = orZero(rs.getBigDecimal("collected"));
+            BigDecimal outstanding = orZero(rs.getBigDecimal("outstanding"));
+            long openInvoices = rs.getLong("open_invoices");
+            totals[0] = totals[0].add(invoiced);
+            totals[1] = totals[1].add(collected);
+            totals[2] = totals[2].add(outstanding);
+
+            BigDecimal[] month = byMonth.get(YearMonth.of(rs.getInt("invoice_year"), rs.getInt("invoice_month")));
+            if (month != null) {
+                month[0] = month[0].add(invoiced);
+                month[1] = month[1].add(collected);
+            }
+
+            int bucket = rs.getInt("aging_bucket");
+            if (!rs.wasNull() && openInvoices > 0) {
+                agingAmounts[bucket] = agingAmounts[bucket].add(outstanding);
+                agingCounts[bucket] += openInvoices;
+
+                InvoiceAnalyticsDto.ClientOutstandingDto client = clients.computeIfAbsent(rs.getLong("client_id"),
+                    id -> new InvoiceAnalyticsDto.ClientOutstandingDto(id, null, BigDecimal.ZERO, 0));
+                client.setCompanyName(rs.getString("company_name"));
+                client.setOutstanding(client.getOutstanding().add(outstanding));
+                client.setOpenInvoices(client.getOpenInvoices() + openInvoices);
+            }
+        }, Date.valueOf(today.minusDays(30)), Date.valueOf(today.minusDays(60)), Date.valueOf(today.minusDays(90)), userId);
+
+        InvoiceAnalyticsDto analytics = new InvoiceAnalyticsDto();
+        analytics.setAsOf(today);
+        analytics.setTotalInvoiced(totals[0]);
+        analytics.setTotalCollected(totals[1]);
+        analytics.setTotalOutstanding(totals[2]);
+
+        List<InvoiceAnalyticsDto.MonthDto> monthly = new ArrayList<>(byMonth.size());
+        for (Map.Entry<YearMonth, BigDecimal[]> month : byMonth.entrySet()) {
+            monthly.add(new InvoiceAnalyticsDto.MonthDto(month.getKey().toString(), month.getValue()[0], month.getValue()[1]));
+        }
+        analytics.setMonthlyRevenue(monthly);
+
+        List<InvoiceAnalyticsDto.AgingBucketDto> aging = new ArrayList<>(AGING_BUCKETS.length);
+        for (int i = 0; i < AGING_BUCKETS.length; i++) {
+            aging.add(new InvoiceAnalyticsDto.AgingBucketDto(AGING_BUCKETS[i], agingAmounts[i], agingCounts[i]));
+        }
+        analytics.setAging(aging);
+
+        analytics.setTopClients(clients.values().stream()
+            .filter(client -> client.getOutstanding().signum() > 0)
+            .sorted(Comparator.comparing(InvoiceAnalyticsDto.ClientOutstandingDto::getOutstanding).reversed())
+            .limit(topClients)
+            .collect(Collectors.toList()));
+        return analytics;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,148 @@
+package com.codavert.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the OVERDUE invoice status current. A scheduled sweep moves every sent or viewed invoice
+ * whose due date has passed to OVERDUE with one UPDATE, stamping the invoices with the time of
+ * the sweep; the invoices carrying that stamp are then read back, and their clients get one
+ * reminder each, sent together as a batch, when invoice-overdue.reminders-enabled is on (off by
+ * default). An invoice is only moved once, so a client is not reminded about it again, and sweeps
+ * on other instances find nothing left to move. The sweep also runs at startup.
+ *
+ * Between sweeps, reads of the overdue invoices also count sent or viewed invoices already past
+ * due (InvoiceRepository.OVERDUE_CONDITION). Moving an invoice out of OVERDUE is handled by
+ * InvoiceService.
+ */
+@Service
+public class InvoiceOverdueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceOverdueService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private InvoiceAnalyticsService analyticsService;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Value("${invoice-overdue.reminders-enabled:false}")
+    private boolean remindersEnabled;
+
+    // Invoices that fell due while the application was down are moved right away
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void sweepOnStartup() {
+        sweep();
+    }
+
+    @Scheduled(cron = "${invoice-overdue.cron:0 0 6 * * *}")
+    public void sweep() {
+        // Truncated so the stamp reads back equal on every database
+        LocalDateTime sweptAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Integer moved = transactionTemplate.execute(status -> jdbcTemplate.update(
+            "UPDATE invoices SET status = 'OVERDUE', overdue_since = ?, updated_at = ? " +
+            "WHERE status IN ('SENT', 'VIEWED') AND due_date < ?",
+            Timestamp.valueOf(sweptAt), Timestamp.valueOf(sweptAt), Date.valueOf(LocalDate.now())));
+        if (moved == null || moved == 0) {
+            return;
+        }
+        logger.info("Marked {} invoices overdue", moved);
+
+        Map<Long, ClientReminder> reminders = new LinkedHashMap<>();
+        Set<Long> userIds = new HashSet<>();
+        jdbcTemplate.query(
+            "SELECT i.user_id, i.client_id, c.company_name, c.contact_person, c.email, " +
+            "i.invoice_number, i.due_date, i.total_amount, i.amount_received " +
+            "FROM invoices i JOIN clients c ON c.id = i.client_id " +
+            "WHERE i.status = 'OVERDUE' AND i.overdue_since = ? ORDER BY i.client_id, i.due_date",
+            (RowCallbackHandler) rs -> {
+                userIds.add(rs.getLong("user_id"));
+                ClientReminder reminder = reminders.computeIfAbsent(rs.getLong("client_id"), id -> new ClientReminder());
+                reminder.companyName = rs.getString("company_name");
+                reminder.contactPerson = rs.getString("contact_person");
+                reminder.email = rs.getString("email");
+                BigDecimal total = rs.getBigDecimal("total_amount");
+                BigDecimal received = rs.getBigDecimal("amount_received");
+                BigDecimal outstanding = total == null ? null : received == null ? total : total.subtract(received);
+                reminder.lines.add(rs.getString("invoice_number") + " - due " + rs.getDate("due_date").toLocalDate() +
+                    (outstanding != null ? ", outstanding " + outstanding.toPlainString() : ""));
+            },
+            Timestamp.valueOf(sweptAt));
+
+        for (Long userId : userIds) {
+            analyticsService.invalidate(userId);
+            dashboardService.invalidate(userId);
+        }
+
+        if (remindersEnabled) {
+            List<SimpleMailMessage> messages = new ArrayList<>(reminders.size());
+            for (ClientReminder reminder : reminders.values()) {
+                if (reminder.email == null || reminder.email.isEmpty()) {
+                    logger.warn("No email for client {}; skipping overdue reminder", reminder.companyName);
+                    continue;
+                }
+                messages.add(reminder.toMessage());
+            }
+            emailService.sendEmailBatch(messages);
+        }
+    }
+
+    // Newly overdue invoices of one client
+    private static final class ClientReminder {
+        private String companyName;
+        private String contactPerson;
+        private String email;
+        private final List<String> lines = new ArrayList<>();
+
+        private SimpleMailMessage toMessage() {
+            StringBuilder body = new StringBuilder();
+            body.append("Dear ").append(contactPerson != null ? contactPerson : companyName).append(",\n\n");
+            body.append(lines.size() == 1 ? "The following invoice is now past due:\n\n" : "The following invoices are now past due:\n\n");
+            for (String line : lines) {
+                body.append("  ").append(line).append("\n");
+            }
+            body.append("\nIf you have already sent the payment, please disregard this reminder.\n\n");
+            body.append("Best regards,\nCodavert Team\n");
+
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(email);
+            message.setSubject("Payment reminder: " + (lines.size() == 1 ? "1 overdue invoice" : lines.size() + " overdue invoices"));
+            message.setText(body.toString());
+            return message;
+        }
+    }
+}
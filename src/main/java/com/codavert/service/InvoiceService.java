@@ -2,11 +2,13 @@ package com.codavert.service;
 
 import com.codavert.dto.InvoiceDto;
 import com.codavert.entity.Client;
+import com.codavert.entity.DocumentNumberCounter.DocumentType;
 import com.codavert.entity.Invoice;
 import com.codavert.entity.Project;
 import com.codavert.entity.User;
 import com.codavert.repository.ClientRepository;
 import com.codavert.repository.InvoiceRepository;
+import com.codavert.repository.InvoiceRepository.InvoiceListItem;
 import com.codavert.repository.ProjectRepository;
 import com.codavert.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,14 +28,17 @@ public class InvoiceService {
     @Autowired private ProjectRepository projectRepository;
     @Autowired private ClientRepository clientRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private DocumentNumberAllocator numberAllocator;
+    @Autowired private InvoiceAnalyticsService analyticsService;
+    @Autowired private DashboardService dashboardService;
 
-    public Page<Invoice> getInvoicesByUserId(Long userId, Pageable pageable) {
-        return invoiceRepository.findByUserId(userId, pageable);
+    public Page<InvoiceListItem> getInvoicesByUserId(Long userId, Pageable pageable) {
+        return invoiceRepository.findListItemsByUserId(userId, pageable);
     }
     
     // Admin: get all invoices
-    public Page<Invoice> getAllInvoices(Pageable pageable) {
-        return invoiceRepository.findAll(pageable);
+    public Page<InvoiceListItem> getAllInvoices(Pageable pageable) {
+        return invoiceRepository.findAllListItems(pageable);
     }
 
     public Optional<Invoice> getInvoiceById(Long id) {
@@ -47,7 +52,13 @@ public class InvoiceService {
             .orElseThrow(() -> new RuntimeException("Client not found with id: " + dto.getClientId()));
         User user = project.getUser();
 
-        String nextNumber = dto.getInvoiceNumber() != null ? dto.getInvoiceNumber() : nextInvoiceNumber(user.getId());
+        String nextNumber;
+        if (dto.getInvoiceNumber() != null) {
+            nextNumber = dto.getInvoiceNumber();
+            numberAllocator.observe(user.getId(), DocumentType.INVOICE, nextNumber);
+        } else {
+            nextNumber = numberAllocator.allocate(user.getId(), DocumentType.INVOICE);
+        }
         Invoice invoice = new Invoice();
         invoice.setInvoiceNumber(nextNumber);
         invoice.setInvoiceDate(dto.getInvoiceDate() != null ? dto.getInvoiceDate() : LocalDate.now());
@@ -61,11 +72,16 @@ public class InvoiceService {
         invoice.setPaymentMethod(dto.getPaymentMethod());
         invoice.setAmountReceived(dto.getAmountReceived() != null ? dto.getAmountReceived() : BigDecimal.ZERO);
         invoice.setStatus(dto.getStatus() != null ? Invoice.InvoiceStatus.valueOf(dto.getStatus()) : Invoice.InvoiceStatus.DRAFT);
+        rejectEarlyOverdue(invoice, null);
+        reconcileOverdue(invoice);
         invoice.setProject(project);
         invoice.setClient(client);
         invoice.setUser(user);
 
-        return invoiceRepository.save(invoice);
+        Invoice saved = invoiceRepository.save(invoice);
+        analyticsService.invalidate(user.getId());
+        dashboardService.invalidate(user.getId());
+        return saved;
     }
 
     public Invoice updateInvoice(Long id, InvoiceDto dto) {
@@ -74,6 +90,7 @@ public class InvoiceService {
 
         if (dto.getInvoiceNumber() != null) {
             invoice.setInvoiceNumber(dto.getInvoiceNumber());
+            numberAllocator.observe(invoice.getUser().getId(), DocumentType.INVOICE, dto.getInvoiceNumber());
         }
         if (dto.getInvoiceDate() != null) {
             invoice.setInvoiceDate(dto.getInvoiceDate());
@@ -105,11 +122,17 @@ public class InvoiceService {
         if (dto.getAmountReceived() != null) {
             invoice.setAmountReceived(dto.getAmountReceived());
         }
+        Invoice.InvoiceStatus previousStatus = invoice.getStatus();
         if (dto.getStatus() != null) {
             invoice.setStatus(Invoice.InvoiceStatus.valueOf(dto.getStatus()));
         }
+        rejectEarlyOverdue(invoice, previousStatus);
+        reconcileOverdue(invoice);
 
-        return invoiceRepository.save(invoice);
+        Invoice saved = invoiceRepository.save(invoice);
+        analyticsService.invalidate(invoice.getUser().getId());
+        dashboardService.invalidate(invoice.getUser().getId());
+        return saved;
     }
 
     public void deleteInvoice(Long id) {
@@ -117,30 +140,59 @@ public class InvoiceService {
             .orElseThrow(() -> new RuntimeException("Invoice not found with id: " + id));
         invoice.setStatus(Invoice.InvoiceStatus.CANCELLED);
         invoiceRepository.save(invoice);
+        analyticsService.invalidate(invoice.getUser().getId());
+        dashboardService.invalidate(invoice.getUser().getId());
     }
 
     public void markSent(Long id) {
         Invoice invoice = invoiceRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Invoice not found with id: " + id));
+        // Sending an overdue invoice again keeps it overdue (see reconcileOverdue)
         invoice.setStatus(Invoice.InvoiceStatus.SENT);
+        reconcileOverdue(invoice);
         invoiceRepository.save(invoice);
+        analyticsService.invalidate(invoice.getUser().getId());
+        dashboardService.invalidate(invoice.getUser().getId());
     }
 
-    public String getNextInvoiceNumber(Long userId) {
-        String max = invoiceRepository.findMaxInvoiceNumberByUserId(userId);
-        int next = 1;
-        if (max != null && max.matches("INV-\\d+")) {
-            next = Integer.parseInt(max.substring(4)) + 1;
+    /**
+     * Keeps the status in line with the overdue sweep (InvoiceOverdueService). An invoice whose due
+     * date is moved to today or later leaves OVERDUE and may be reminded about again once the new
+     * date passes. A sent or viewed invoice the sweep already moved stays OVERDUE while it is past
+     * due, so its client is not reminded twice.
+     */
+    /**
+     * Only the overdue sweep makes an invoice OVERDUE; asking for it on an invoice that is not past due
+     * throws IllegalArgumentException. Keeping OVERDUE while the due date moves is left to reconcileOverdue.
+     */
+    private void rejectEarlyOverdue(Invoice invoice, Invoice.InvoiceStatus previousStatus) {
+        boolean pastDue = invoice.getDueDate() != null && invoice.getDueDate().isBefore(LocalDate.now());
+        if (invoice.getStatus() == Invoice.InvoiceStatus.OVERDUE && previousStatus != Invoice.InvoiceStatus.OVERDUE && !pastDue) {
+            throw new IllegalArgumentException("Status OVERDUE requires a due date in the past");
         }
-        return String.format("INV-%04d", next);
     }
-    
-    private String nextInvoiceNumber(Long userId) {
-        return getNextInvoiceNumber(userId);
+
+    private void reconcileOverdue(Invoice invoice) {
+        boolean pastDue = invoice.getDueDate() != null && invoice.getDueDate().isBefore(LocalDate.now());
+        Invoice.InvoiceStatus status = invoice.getStatus();
+        if (!pastDue) {
+            if (status == Invoice.InvoiceStatus.OVERDUE) {
+                invoice.setStatus(Invoice.InvoiceStatus.SENT);
+            }
+            invoice.setOverdueSince(null);
+        } else if (invoice.getOverdueSince() != null
+                && (status == Invoice.InvoiceStatus.SENT || status == Invoice.InvoiceStatus.VIEWED)) {
+            invoice.setStatus(Invoice.InvoiceStatus.OVERDUE);
+        }
+    }
+
+    // Preview for forms; the number is only taken when the invoice is created
+    public String getNextInvoiceNumber(Long userId) {
+        return numberAllocator.peek(userId, DocumentType.INVOICE);
     }
 
-    public List<Invoice> getInvoicesByProjectId(Long projectId) {
-        return invoiceRepository.findByProjectId(projectId);
+    public List<InvoiceListItem> getInvoicesByProjectId(Long projectId) {
+        return invoiceRepository.findListItemsByProjectId(projectId);
     }
 }
 
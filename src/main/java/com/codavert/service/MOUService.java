@@ -2,6 +2,7 @@ package com.codavert.service;
 
 import com.codavert.dto.MOUDto;
 import com.codavert.entity.Client;
+import com.codavert.entity.DocumentNumberCounter.DocumentType;
 import com.codavert.entity.MOU;
 import com.codavert.entity.Project;
 import com.codavert.entity.User;
@@ -25,6 +26,7 @@ public class MOUService {
     @Autowired private ProjectRepository projectRepository;
     @Autowired private ClientRepository clientRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private DocumentNumberAllocator numberAllocator;
 
     public Page<MOU> getMOUsByUserId(Long userId, Pageable pageable) {
         return mouRepository.findByUserId(userId, pageable);
@@ -55,7 +57,13 @@ public class MOUService {
             project = projectRepository.findById(dto.getProjectId()).orElse(null);
         }
 
-        String nextNumber = dto.getMouNumber() != null ? dto.getMouNumber() : getNextMouNumber(user.getId());
+        String nextNumber;
+        if (dto.getMouNumber() != null) {
+            nextNumber = dto.getMouNumber();
+            numberAllocator.observe(user.getId(), DocumentType.MOU, nextNumber);
+        } else {
+            nextNumber = numberAllocator.allocate(user.getId(), DocumentType.MOU);
+        }
         MOU mou = new MOU();
         mou.setMouNumber(nextNumber);
         mou.setEffectiveDate(dto.getEffectiveDate() != null ? dto.getEffectiveDate() : LocalDate.now());
@@ -81,6 +89,7 @@ public class MOUService {
 
         if (dto.getMouNumber() != null) {
             mou.setMouNumber(dto.getMouNumber());
+            numberAllocator.observe(mou.getUser().getId(), DocumentType.MOU, dto.getMouNumber());
         }
         if (dto.getEffectiveDate() != null) {
             mou.setEffectiveDate(dto.getEffectiveDate());
@@ -123,13 +132,9 @@ public class MOUService {
         mouRepository.save(mou);
     }
 
+    // Preview for forms; the number is only taken when the MOU is created
     public String getNextMouNumber(Long userId) {
-        String max = mouRepository.findMaxMouNumberByUserId(userId);
-        int next = 1;
-        if (max != null && max.matches("MOU-\\d+")) {
-            next = Integer.parseInt(max.substring(4)) + 1;
-        }
-        return String.format("MOU-%04d", next);
+        return numberAllocator.peek(userId, DocumentType.MOU);
     }
 
     public List<MOU> getMOUsByProjectId(Long projectId) {
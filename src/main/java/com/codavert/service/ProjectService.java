@@ -32,6 +32,12 @@ public class ProjectService {
     @Autowired
     private ProjectTaskRepository projectTaskRepository;
     
+    @Autowired
+    private DatabaseSearchMode searchMode;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
     public Project createProject(ProjectDto projectDto, Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
@@ -68,7 +74,9 @@ public class ProjectService {
             project.setPriority(Project.Priority.valueOf(projectDto.getPriority()));
         }
         
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        dashboardService.invalidate(saved.getUser().getId());
+        return saved;
     }
     
     public Page<Project> getAllProjectsByUserId(Long userId, Pageable pageable) {
@@ -113,7 +121,9 @@ public class ProjectService {
             project.setPriority(Project.Priority.valueOf(projectDto.getPriority()));
         }
         
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        dashboardService.invalidate(saved.getUser().getId());
+        return saved;
     }
     
     public void deleteProject(Long id) {
@@ -122,9 +132,14 @@ public class ProjectService {
         
         project.setStatus(Project.ProjectStatus.CANCELLED);
         projectRepository.save(project);
+        dashboardService.invalidate(project.getUser().getId());
     }
     
     public Page<Project> searchProjects(Long userId, String searchTerm, Pageable pageable) {
+        if (searchMode.isTrigram()) {
+            return projectRepository.searchProjectsByUserIdRanked(userId, DatabaseSearchMode.term(searchTerm),
+                DatabaseSearchMode.containsPattern(searchTerm), DatabaseSearchMode.unsorted(pageable));
+        }
         return projectRepository.searchProjectsByUserId(userId, searchTerm, pageable);
     }
     
@@ -0,0 +1,70 @@
+package com.codavert.service;
+
+import com.codavert.repository.ProjectTaskRepository;
+import com.codavert.repository.ProjectTaskRepository.TaskCounts;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Task statistics per project, computed with a single aggregate query and kept as a snapshot
+ * until a task of that project is written. Overdue and upcoming counts depend on the date,
+ * so a snapshot is only reused on the day it was taken.
+ */
+@Service
+public class ProjectTaskStatisticsService {
+
+    private static final int UPCOMING_DAYS = 7;
+
+    @Autowired
+    private ProjectTaskRepository taskRepository;
+
+    @Autowired
+    private SnapshotCaches snapshotCaches;
+
+    private SnapshotCache<Long, Map<String, Object>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = snapshotCaches.create();
+    }
+
+    public Map<String, Object> getStatistics(Long projectId) {
+        LocalDate today = LocalDate.now();
+        return cache.get(projectId, today.plusDays(1).atStartOfDay(), () -> load(projectId, today));
+    }
+
+    /**
+     * Drops the snapshot of the project; call after any task of the project is created, changed or deleted.
+     */
+    public void invalidate(Long projectId) {
+        if (projectId == null) {
+            return;
+        }
+        cache.invalidate(projectId);
+    }
+
+    private Map<String, Object> load(Long projectId, LocalDate today) {
+        TaskCounts counts = taskRepository.getTaskCounts(projectId, today, today.plusDays(UPCOMING_DAYS));
+        long totalTasks = counts.getTotal();
+        long completedTasks = counts.getCompleted();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalTasks", totalTasks);
+        stats.put("todoTasks", counts.getTodo());
+        stats.put("inProgressTasks", counts.getInProgress());
+        stats.put("completedTasks", completedTasks);
+        stats.put("blockedTasks", counts.getBlocked());
+
+        double progress = totalTasks > 0 ? (double) completedTasks / totalTasks * 100 : 0;
+        stats.put("progressPercentage", Math.round(progress * 10.0) / 10.0);
+        stats.put("overdueTasks", counts.getOverdue());
+        stats.put("upcomingTasks", counts.getUpcoming());
+        return Collections.unmodifiableMap(stats);
+    }
+}
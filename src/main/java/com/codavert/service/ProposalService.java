@@ -2,6 +2,7 @@ package com.codavert.service;
 
 import com.codavert.dto.ProposalDto;
 import com.codavert.entity.Client;
+import com.codavert.entity.DocumentNumberCounter.DocumentType;
 import com.codavert.entity.Proposal;
 import com.codavert.entity.Project;
 import com.codavert.entity.User;
@@ -26,6 +27,7 @@ public class ProposalService {
     @Autowired private ProjectRepository projectRepository;
     @Autowired private ClientRepository clientRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private DocumentNumberAllocator numberAllocator;
 
     public Page<Proposal> getProposalsByUserId(Long userId, Pageable pageable) {
         return proposalRepository.findByUserId(userId, pageable);
@@ -56,7 +58,13 @@ public class ProposalService {
             project = projectRepository.findById(dto.getProjectId()).orElse(null);
         }
 
-        String nextNumber = dto.getProposalNumber() != null ? dto.getProposalNumber() : getNextProposalNumber(user.getId());
+        String nextNumber;
+        if (dto.getProposalNumber() != null) {
+            nextNumber = dto.getProposalNumber();
+            numberAllocator.observe(user.getId(), DocumentType.PROPOSAL, nextNumber);
+        } else {
+            nextNumber = numberAllocator.allocate(user.getId(), DocumentType.PROPOSAL);
+        }
         Proposal proposal = new Proposal();
         proposal.setProposalNumber(nextNumber);
         proposal.setProposalDate(dto.getProposalDate() != null ? dto.getProposalDate() : LocalDate.now());
@@ -79,6 +87,7 @@ public class ProposalService {
 
         if (dto.getProposalNumber() != null) {
             proposal.setProposalNumber(dto.getProposalNumber());
+            numberAllocator.observe(proposal.getUser().getId(), DocumentType.PROPOSAL, dto.getProposalNumber());
         }
         if (dto.getProposalDate() != null) {
             proposal.setProposalDate(dto.getProposalDate());
@@ -112,13 +121,9 @@ public class ProposalService {
         proposalRepository.save(proposal);
     }
 
+    // Preview for forms; the number is only taken when the proposal is created
     public String getNextProposalNumber(Long userId) {
-        String max = proposalRepository.findMaxProposalNumberByUserId(userId);
-        int next = 1;
-        if (max != null && max.matches("PROP-\\d+")) {
-            next = Integer.parseInt(max.substring(5)) + 1;
-        }
-        return String.format("PROP-%04d", next);
+        return numberAllocator.peek(userId, DocumentType.PROPOSAL);
     }
 
     public List<Proposal> getProposalsByProjectId(Long projectId) {
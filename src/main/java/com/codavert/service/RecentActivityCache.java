@@ -0,0 +1,222 @@
+package com.codavert.service;
+
+import com.codavert.entity.ActivityLog;
+import com.codavert.repository.ActivityLogRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user ring buffer of the latest activity entries plus hourly counters, kept up to date
+ * from the activity log writer. The ring is loaded from the repository the first time a user
+ * is read; counters only cover time since the user was first seen by this instance, and
+ * callers fall back to the repository for anything older or larger than what is kept here.
+ * Each hour with activity also keeps per-minute counts, so a count takes whole hours from the
+ * hourly counters and the partial hour the window starts in from the minutes, without going to
+ * the database. Counts are exact to the minute: the window starts at the beginning of the
+ * minute it falls in.
+ *
+ * At most activity-cache.max-users users are kept, least recently used first out. Only writes
+ * made through this instance are seen, so deployments running several instances turn the cache
+ * off with activity-cache.enabled=false.
+ */
+@Component
+public class RecentActivityCache {
+
+    private static final Comparator<ActivityLog> NEWEST_FIRST = Comparator
+            .comparing(ActivityLog::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ActivityLog::getId, Comparator.nullsFirst(Comparator.reverseOrder()));
+
+    @Autowired
+    private ActivityLogRepository activityLogRepository;
+
+    @Value("${activity-cache.recent-size:50}")
+    private int recentSize;
+
+    @Value("${activity-cache.counter-hours:168}")
+    private int counterHours;
+
+    @Value("${activity-cache.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${activity-cache.enabled:true}")
+    private boolean enabled;
+
+    private Map<Long, UserActivity> users;
+
+    @PostConstruct
+    public void init() {
+        users = Collections.synchronizedMap(new LinkedHashMap<Long, UserActivity>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserActivity> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+    public void record(List<ActivityLog> logs) {
+        if (!enabled) {
+            return;
+        }
+        for (ActivityLog log : logs) {
+            getUserActivity(log.getUserId()).add(log);
+        }
+    }
+
+    /**
+     * Latest entries for the user, newest first, or null when the limit is larger than what is kept.
+     */
+    public List<ActivityLog> getRecent(Long userId, int limit) {
+        if (!enabled || limit > recentSize) {
+            return null;
+        }
+
+        UserActivity activity = getUserActivity(userId);
+        if (!activity.isWarm()) {
+            List<ActivityLog> stored = activityLogRepository.findFeed(userId, null, null, null, recentSize);
+            activity.warmUp(stored);
+        }
+        return activity.latest(limit);
+    }
+
+    /**
+     * Number of entries from the start of the minute the given hours ago, or null when the window
+     * reaches back before this instance started counting for the user.
+     */
+    public Long countSince(Long userId, int hours) {
+        if (!enabled || hours <= 0 || hours >= counterHours) {
+            return null;
+        }
+        return getUserActivity(userId).countFromMinute(epochMinute(LocalDateTime.now().minusHours(hours)));
+    }
+
+    private UserActivity getUserActivity(Long userId) {
+        return users.computeIfAbsent(userId, id -> new UserActivity(recentSize, counterHours));
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.MINUTES).toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static final class UserActivity {
+        private final ActivityLog[] ring;
+        private int head;
+        private int size;
+        private boolean warm;
+
+        private final long[] hourCounts;
+        private final long[] hourOf;
+        // Counts per minute of each hour slot, allocated once the hour has activity
+        private final int[][] minuteCounts;
+        private final long countingSinceMinute;
+
+        private UserActivity(int recentSize, int counterHours) {
+            this.ring = new ActivityLog[recentSize];
+            this.hourCounts = new long[counterHours];
+            this.hourOf = new long[counterHours];
+            this.minuteCounts = new int[counterHours][];
+            // The current minute is only partly observed, so it cannot serve as a window start
+            this.countingSinceMinute = epochMinute(LocalDateTime.now()) + 1;
+        }
+
+        private synchronized boolean isWarm() {
+            return warm;
+        }
+
+        private synchronized void add(ActivityLog log) {
+            ring[head] = log;
+            head = (head + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+
+            if (log.getCreatedAt() != null) {
+                long minute = epochMinute(log.getCreatedAt());
+                long hour = Math.floorDiv(minute, 60L);
+                int slot = (int) Math.floorMod(hour, (long) hourCounts.length);
+                if (hourOf[slot] != hour) {
+                    if (hourOf[slot] > hour) {
+                        return; // older than the counter window
+                    }
+                    hourOf[slot] = hour;
+                    hourCounts[slot] = 0;
+                    minuteCounts[slot] = null;
+                }
+                hourCounts[slot]++;
+                if (minuteCounts[slot] == null) {
+                    minuteCounts[slot] = new int[60];
+                }
+                minuteCounts[slot][(int) Math.floorMod(minute, 60L)]++;
+            }
+        }
+
+        // Merges entries loaded from the repository with those recorded while loading
+        private synchronized void warmUp(List<ActivityLog> stored) {
+            if (warm) {
+                return;
+            }
+            Map<Long, ActivityLog> merged = new LinkedHashMap<>();
+            List<ActivityLog> withoutId = new ArrayList<>();
+            for (ActivityLog log : stored) {
+                merged.put(log.getId(), log);
+            }
+            for (ActivityLog log : latest(size)) {
+                if (log.getId() != null) {
+                    merged.put(log.getId(), log);
+                } else {
+                    withoutId.add(log);
+                }
+            }
+
+            List<ActivityLog> all = new ArrayList<>(merged.values());
+            all.addAll(withoutId);
+            all.sort(NEWEST_FIRST);
+
+            head = 0;
+            size = 0;
+            for (int i = Math.min(all.size(), ring.length) - 1; i >= 0; i--) {
+                ring[head] = all.get(i);
+                head = (head + 1) % ring.length;
+                size++;
+            }
+            warm = true;
+        }
+
+        private synchronized List<ActivityLog> latest(int limit) {
+            List<ActivityLog> result = new ArrayList<>(Math.min(limit, size));
+            for (int i = 1; i <= Math.min(limit, size); i++) {
+                result.add(ring[Math.floorMod(head - i, ring.length)]);
+            }
+            result.sort(NEWEST_FIRST);
+            return result;
+        }
+
+        // Entries in the given minute and later ones, or null if counting started after that minute began
+        private synchronized Long countFromMinute(long fromMinute) {
+            if (fromMinute < countingSinceMinute) {
+                return null;
+            }
+            long fromHour = Math.floorDiv(fromMinute, 60L);
+            long total = 0;
+            for (int slot = 0; slot < hourCounts.length; slot++) {
+                if (hourOf[slot] > fromHour) {
+                    total += hourCounts[slot];
+                } else if (hourOf[slot] == fromHour && minuteCounts[slot] != null) {
+                    for (int minute = (int) Math.floorMod(fromMinute, 60L); minute < 60; minute++) {
+                        total += minuteCounts[slot][minute];
+                    }
+                }
+            }
+            return total;
+        }
+    }
+}
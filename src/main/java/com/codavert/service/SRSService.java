@@ -2,6 +2,7 @@ package com.codavert.service;
 
 import com.codavert.dto.SRSDto;
 import com.codavert.entity.Client;
+import com.codavert.entity.DocumentNumberCounter.DocumentType;
 import com.codavert.entity.SRS;
 import com.codavert.entity.Project;
 import com.codavert.entity.User;
@@ -25,6 +26,7 @@ public class SRSService {
     @Autowired private ProjectRepository projectRepository;
     @Autowired private ClientRepository clientRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private DocumentNumberAllocator numberAllocator;
 
     public Page<SRS> getSRSsByUserId(Long userId, Pageable pageable) {
         return srsRepository.findByUserId(userId, pageable);
@@ -55,7 +57,13 @@ public class SRSService {
             project = projectRepository.findById(dto.getProjectId()).orElse(null);
         }
 
-        String nextNumber = dto.getSrsNumber() != null ? dto.getSrsNumber() : getNextSrsNumber(user.getId());
+        String nextNumber;
+        if (dto.getSrsNumber() != null) {
+            nextNumber = dto.getSrsNumber();
+            numberAllocator.observe(user.getId(), DocumentType.SRS, nextNumber);
+        } else {
+            nextNumber = numberAllocator.allocate(user.getId(), DocumentType.SRS);
+        }
         SRS srs = new SRS();
         srs.setSrsNumber(nextNumber);
         srs.setSrsDate(dto.getSrsDate() != null ? dto.getSrsDate() : LocalDate.now());
@@ -77,6 +85,7 @@ public class SRSService {
 
         if (dto.getSrsNumber() != null) {
             srs.setSrsNumber(dto.getSrsNumber());
+            numberAllocator.observe(srs.getUser().getId(), DocumentType.SRS, dto.getSrsNumber());
         }
         if (dto.getSrsDate() != null) {
             srs.setSrsDate(dto.getSrsDate());
@@ -107,13 +116,9 @@ public class SRSService {
         srsRepository.save(srs);
     }
 
+    // Preview for forms; the number is only taken when the SRS is created
     public String getNextSrsNumber(Long userId) {
-        String max = srsRepository.findMaxSrsNumberByUserId(userId);
-        int next = 1;
-        if (max != null && max.matches("SRS-\\d+")) {
-            next = Integer.parseInt(max.substring(4)) + 1;
-        }
-        return String.format("SRS-%04d", next);
+        return numberAllocator.peek(userId, DocumentType.SRS);
     }
 
     public List<SRS> getSRSsByProjectId(Long projectId) {
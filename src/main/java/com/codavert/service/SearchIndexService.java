@@ -0,0 +1,436 @@
+package com.codavert.service;
+
+import com.codavert.dto.SearchResultDto;
+import com.codavert.entity.Client;
+import com.codavert.entity.Project;
+import com.codavert.entity.ProjectDocument;
+import com.codavert.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over clients, projects, documents and users for /api/search. Text is
+ * split into lower-case words; every query word must match the start of a word of an entry, and
+ * entries are ranked by how well they match (whole words over prefixes, names and titles over
+ * other fields). Clients, projects and documents are indexed per owning user, so a search only
+ * looks at the caller's own entries; users are indexed together and only searched for admins.
+ *
+ * The index is built from the database after startup and again on the rebuild schedule, and in
+ * between it follows entity writes through SearchIndexListener, applied once their transaction
+ * commits so a rolled back write never shows up. Removing a client, project or user also drops
+ * the entries that depend on it (a client's projects, a project's documents, everything a user
+ * owns), since rows deleted by the database alongside them never reach the listener. Searches
+ * made before the first build completes find nothing.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Field weights; a whole-word match counts double
+    private static final int NAME = 3;
+    private static final int CONTACT = 2;
+    private static final int TEXT = 1;
+
+    public enum Type {
+        CLIENT, PROJECT, DOCUMENT, USER
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Index index = new Index();
+
+    // Set while a rebuild loads; writes seen meanwhile are replayed onto the new index before it is used
+    private Index building;
+    private final List<Consumer<Index>> pending = new ArrayList<>();
+
+    /**
+     * Entries of the user matching every word of the query, best first. Users are only
+     * included when includeUsers is set; types limits the result to the given types (all if null or empty).
+     */
+    public List<SearchResultDto> search(Long userId, boolean includeUsers, String query, Set<Type> types, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty()) {
+            return new ArrayList<>();
+        }
+        boolean allTypes = types == null || types.isEmpty();
+
+        Index current = index;
+        Map<Entry, Integer> scores;
+        current.lock.readLock().lock();
+        try {
+            List<TreeMap<String, Set<Entry>>> partitions = new ArrayList<>(2);
+            TreeMap<String, Set<Entry>> own = current.partitions.get(userId);
+            if (own != null) {
+                partitions.add(own);
+            }
+            if (includeUsers && (allTypes || types.contains(Type.USER))) {
+                partitions.add(current.users);
+            }
+
+            scores = null;
+            for (String word : words) {
+                Map<Entry, Integer> matches = new HashMap<>();
+                for (TreeMap<String, Set<Entry>> postings : partitions) {
+                    for (Map.Entry<String, Set<Entry>> posting : postings.subMap(word, true, word + Character.MAX_VALUE, true).entrySet()) {
+                        boolean whole = posting.getKey().equals(word);
+                        for (Entry entry : posting.getValue()) {
+                            if (allTypes || types.contains(entry.type)) {
+                                int score = entry.weights.get(posting.getKey()) * (whole ? 2 : 1);
+                                matches.merge(entry, score, Math::max);
+                            }
+                        }
+                    }
+                }
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    Map<Entry, Integer> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Entry, Integer> match : matches.entrySet()) {
+                        Integer score = previous.get(match.getKey());
+                        if (score != null) {
+                            scores.put(match.getKey(), score + match.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            current.lock.readLock().unlock();
+        }
+
+        return scores.entrySet().stream()
+            .sorted(Comparator.<Map.Entry<Entry, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                .thenComparing(match -> match.getKey().title, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparingLong(match -> match.getKey().id))
+            .limit(limit)
+            .map(match -> new SearchResultDto(match.getKey().type.name(), match.getKey().id,
+                match.getKey().title, match.getKey().subtitle, match.getValue()))
+            .collect(Collectors.toList());
+    }
+
+    public void index(Client client) {
+        put(clientEntry(client.getId(), client.getUser().getId(), client.getCompanyName(),
+            client.getContactPerson(), client.getEmail()));
+    }
+
+    public void index(Project project) {
+        put(projectEntry(project.getId(), project.getUser().getId(), project.getClient().getId(), project.getTitle(),
+            project.getStatus() != null ? project.getStatus().name() : null, project.getTechnologies(), project.getDescription()));
+    }
+
+    public void index(ProjectDocument document) {
+        put(documentEntry(document.getId(), document.getUser().getId(), document.getProject().getId(), document.getTitle(),
+            document.getType() != null ? document.getType().name() : null, document.getFileName(), document.getDescription()));
+    }
+
+    public void index(User user) {
+        put(userEntry(user.getId(), user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName()));
+    }
+
+    /**
+     * Removes the entry and everything indexed under it: the projects of a client, the documents
+     * of a project, and every client, project and document owned by a user.
+     */
+    public void remove(Type type, Long id) {
+        apply(target -> target.removeWithDependents(type, id));
+    }
+
+    /**
+     * Indexes a written Client, Project, ProjectDocument or User once the current transaction
+     * commits (right away outside a transaction); other entities are ignored.
+     */
+    public void entityWritten(Object entity) {
+        if (entity instanceof Client client) {
+            afterCommit(() -> index(client));
+        } else if (entity instanceof Project project) {
+            afterCommit(() -> index(project));
+        } else if (entity instanceof ProjectDocument document) {
+            afterCommit(() -> index(document));
+        } else if (entity instanceof User user) {
+            afterCommit(() -> index(user));
+        }
+    }
+
+    /**
+     * Removes a deleted Client, Project, ProjectDocument or User, with its dependents, once the
+     * current transaction commits.
+     */
+    public void entityRemoved(Object entity) {
+        if (entity instanceof Client client) {
+            afterCommit(() -> remove(Type.CLIENT, client.getId()));
+        } else if (entity instanceof Project project) {
+            afterCommit(() -> remove(Type.PROJECT, project.getId()));
+        } else if (entity instanceof ProjectDocument document) {
+            afterCommit(() -> remove(Type.DOCUMENT, document.getId()));
+        } else if (entity instanceof User user) {
+            afterCommit(() -> remove(Type.USER, user.getId()));
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Reloads the whole index from the database, also picking up writes that bypassed JPA.
+     * Searches keep using the previous index until the new one is complete.
+     */
+    @Scheduled(cron = "${search-index.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Index fresh = new Index();
+        synchronized (this) {
+            if (building != null) {
+                return;
+            }
+            building = fresh;
+        }
+        try {
+            jdbcTemplate.query("SELECT id, user_id, company_name, contact_person, email FROM clients",
+                (RowCallbackHandler) rs -> fresh.put(clientEntry(rs.getLong(1), rs.getLong(2), rs.getString(3),
+                    rs.getString(4), rs.getString(5))));
+            jdbcTemplate.query("SELECT id, user_id, client_id, title, status, technologies, description FROM projects",
+                (RowCallbackHandler) rs -> fresh.put(projectEntry(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7))));
+            jdbcTemplate.query("SELECT id, user_id, project_id, title, type, file_name, description FROM project_documents",
+                (RowCallbackHandler) rs -> fresh.put(documentEntry(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7))));
+            jdbcTemplate.query("SELECT id, username, email, first_name, last_name FROM users",
+                (RowCallbackHandler) rs -> fresh.put(userEntry(rs.getLong(1), rs.getString(2), rs.getString(3),
+                    rs.getString(4), rs.getString(5))));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                building = null;
+                pending.clear();
+            }
+            logger.error("Failed to rebuild search index: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            for (Consumer<Index> change : pending) {
+                change.accept(fresh);
+            }
+            pending.clear();
+            building = null;
+            index = fresh;
+        }
+        logger.info("Search index rebuilt with {} entries in {} ms", fresh.entries.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private void put(Entry entry) {
+        apply(target -> target.put(entry));
+    }
+
+    private synchronized void apply(Consumer<Index> change) {
+        change.accept(index);
+        if (building != null) {
+            pending.add(change);
+        }
+    }
+
+    private static Entry clientEntry(long id, Long ownerId, String companyName, String contactPerson, String email) {
+        Entry entry = new Entry(Type.CLIENT, id, ownerId, null, companyName, contactPerson != null ? contactPerson : email);
+        entry.add(companyName, NAME);
+        entry.add(contactPerson, CONTACT);
+        entry.add(email, CONTACT);
+        return entry;
+    }
+
+    private static Entry projectEntry(long id, Long ownerId, Long clientId, String title, String status, String technologies, String description) {
+        Entry entry = new Entry(Type.PROJECT, id, ownerId, clientId, title, status);
+        entry.add(title, NAME);
+        entry.add(technologies, TEXT);
+        entry.add(description, TEXT);
+        return entry;
+    }
+
+    private static Entry documentEntry(long id, Long ownerId, Long projectId, String title, String type, String fileName, String description) {
+        Entry entry = new Entry(Type.DOCUMENT, id, ownerId, projectId, title, fileName != null ? fileName : type);
+        entry.add(title, NAME);
+        entry.add(fileName, CONTACT);
+        entry.add(description, TEXT);
+        return entry;
+    }
+
+    private static Entry userEntry(long id, String username, String email, String firstName, String lastName) {
+        String name = ((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "")).trim();
+        Entry entry = new Entry(Type.USER, id, null, null, name.isEmpty() ? username : name, email);
+        entry.add(firstName, NAME);
+        entry.add(lastName, NAME);
+        entry.add(username, NAME);
+        entry.add(email, CONTACT);
+        return entry;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    // One indexed client, project, document or user, with the best field weight of each of its words
+    private static final class Entry {
+        private final Type type;
+        private final long id;
+        private final Long ownerId;
+        // Client of a project, project of a document
+        private final Long parentId;
+        private final String title;
+        private final String subtitle;
+        private final Map<String, Integer> weights = new HashMap<>();
+
+        private Entry(Type type, long id, Long ownerId, Long parentId, String title, String subtitle) {
+            this.type = type;
+            this.id = id;
+            this.ownerId = ownerId;
+            this.parentId = parentId;
+            this.title = title;
+            this.subtitle = subtitle;
+        }
+
+        private void add(String text, int weight) {
+            for (String word : tokenize(text)) {
+                weights.merge(word, weight, Math::max);
+            }
+        }
+    }
+
+    // Entries by type and id, and word postings per owning user (users in a partition of their own)
+    private static final class Index {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<List<Object>, Entry> entries = new HashMap<>();
+        private final Map<Long, TreeMap<String, Set<Entry>>> partitions = new HashMap<>();
+        private final TreeMap<String, Set<Entry>> users = new TreeMap<>();
+
+        private void put(Entry entry) {
+            lock.writeLock().lock();
+            try {
+                List<Object> key = List.of(entry.type, entry.id);
+                unlink(entries.put(key, entry));
+                TreeMap<String, Set<Entry>> postings = postingsOf(entry, true);
+                for (String word : entry.weights.keySet()) {
+                    postings.computeIfAbsent(word, w -> new LinkedHashSet<>()).add(entry);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeWithDependents(Type type, Long id) {
+            lock.writeLock().lock();
+            try {
+                unlink(entries.remove(List.of(type, id)));
+                if (type == Type.DOCUMENT) {
+                    return;
+                }
+                // Dependents are only reachable by scanning; removals of clients, projects and users are rare
+                Set<Long> projectIds = new HashSet<>();
+                if (type == Type.PROJECT) {
+                    projectIds.add(id);
+                }
+                List<Entry> dependents = new ArrayList<>();
+                for (Entry entry : entries.values()) {
+                    if (type == Type.USER ? id.equals(entry.ownerId)
+                            : type == Type.CLIENT && entry.type == Type.PROJECT && id.equals(entry.parentId)) {
+                        dependents.add(entry);
+                        if (entry.type == Type.PROJECT) {
+                            projectIds.add(entry.id);
+                        }
+                    }
+                }
+                if (type != Type.USER && !projectIds.isEmpty()) {
+                    for (Entry entry : entries.values()) {
+                        if (entry.type == Type.DOCUMENT && projectIds.contains(entry.parentId)) {
+                            dependents.add(entry);
+                        }
+                    }
+                }
+                for (Entry dependent : dependents) {
+                    unlink(entries.remove(List.of(dependent.type, dependent.id)));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void unlink(Entry entry) {
+            if (entry == null) {
+                return;
+            }
+            TreeMap<String, Set<Entry>> postings = postingsOf(entry, false);
+            if (postings == null) {
+                return;
+            }
+            for (String word : entry.weights.keySet()) {
+                Set<Entry> posting = postings.get(word);
+                if (posting != null && posting.remove(entry) && posting.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+            if (postings.isEmpty() && postings != users) {
+                partitions.remove(entry.ownerId);
+            }
+        }
+
+        private TreeMap<String, Set<Entry>> postingsOf(Entry entry, boolean create) {
+            if (entry.type == Type.USER) {
+                return users;
+            }
+            return create ? partitions.computeIfAbsent(entry.ownerId, id -> new TreeMap<>()) : partitions.get(entry.ownerId);
+        }
+    }
+}
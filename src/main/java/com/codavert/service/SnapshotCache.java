@@ -0,0 +1,110 @@
+package com.codavert.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-key cache of computed results, each kept until it expires or its key is invalidated.
+ * A result is only stored if its key was not invalidated while it was being computed, so a
+ * load that raced with a write never outlives that write. At most maxEntries results are kept,
+ * least recently used first out; expired ones are dropped when read and by SnapshotCaches'
+ * periodic purge. Create instances through SnapshotCaches.
+ */
+public class SnapshotCache<K, V> {
+
+    private final Map<K, Snapshot<V>> snapshots;
+
+    // Keys being loaded right now, with a version bumped by every invalidation during the load
+    private final Map<K, Load> loads = new HashMap<>();
+
+    SnapshotCache(int maxEntries) {
+        this.snapshots = new LinkedHashMap<K, Snapshot<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Snapshot<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The cached result of the key if it has not expired, otherwise a fresh one from the loader,
+     * kept until expiresAt.
+     */
+    public V get(K key, LocalDateTime expiresAt, Supplier<V> loader) {
+        Load load;
+        long versionBefore;
+        synchronized (this) {
+            Snapshot<V> snapshot = snapshots.get(key);
+            if (snapshot != null) {
+                if (snapshot.expiresAt.isAfter(LocalDateTime.now())) {
+                    return snapshot.value;
+                }
+                snapshots.remove(key);
+            }
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.loaders++;
+            versionBefore = load.version;
+        }
+
+        V value = null;
+        boolean loaded = false;
+        try {
+            value = loader.get();
+            loaded = true;
+            return value;
+        } finally {
+            synchronized (this) {
+                if (loaded && load.version == versionBefore) {
+                    snapshots.put(key, new Snapshot<>(expiresAt, value));
+                }
+                if (--load.loaders == 0) {
+                    loads.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * True when an unexpired result of the key is cached.
+     */
+    public synchronized boolean contains(K key) {
+        Snapshot<V> snapshot = snapshots.get(key);
+        return snapshot != null && snapshot.expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    public synchronized void invalidate(K key) {
+        snapshots.remove(key);
+        Load load = loads.get(key);
+        if (load != null) {
+            load.version++;
+        }
+    }
+
+    synchronized void removeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Iterator<Snapshot<V>> it = snapshots.values().iterator(); it.hasNext(); ) {
+            if (!it.next().expiresAt.isAfter(now)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Load {
+        private int loaders;
+        private long version;
+    }
+
+    private static final class Snapshot<V> {
+        private final LocalDateTime expiresAt;
+        private final V value;
+
+        private Snapshot(LocalDateTime expiresAt, V value) {
+            this.expiresAt = expiresAt;
+            this.value = value;
+        }
+    }
+}
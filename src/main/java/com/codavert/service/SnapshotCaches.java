@@ -0,0 +1,34 @@
+package com.codavert.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Creates the services' SnapshotCaches with the configured size bound and periodically drops
+ * their expired results, so keys that are never read again do not stay in memory.
+ */
+@Component
+public class SnapshotCaches {
+
+    @Value("${snapshot-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final List<SnapshotCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+    public <K, V> SnapshotCache<K, V> create() {
+        SnapshotCache<K, V> cache = new SnapshotCache<>(maxEntries);
+        caches.add(cache);
+        return cache;
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot-cache.purge-interval-ms:60000}")
+    public void removeExpired() {
+        for (SnapshotCache<?, ?> cache : caches) {
+            cache.removeExpired();
+        }
+    }
+}
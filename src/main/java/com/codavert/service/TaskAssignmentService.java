@@ -0,0 +1,88 @@
+package com.codavert.service;
+
+import com.codavert.dto.BulkTaskAssignmentDto;
+import com.codavert.entity.Project;
+import com.codavert.entity.ProjectTask;
+import com.codavert.entity.ProjectTask.TaskStatus;
+import com.codavert.repository.ProjectRepository;
+import com.codavert.repository.ProjectTaskRepository;
+import com.codavert.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class TaskAssignmentService {
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectTaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ActivityLogService activityLogService;
+
+    /**
+     * Creates one task per existing user in a single transaction. Users are checked with one
+     * query, the tasks go out as a JDBC batch (ids come from a pooled sequence) and their
+     * activity entries as a second batch on the same connection.
+     */
+    @Transactional
+    public List<ProjectTask> bulkAssign(BulkTaskAssignmentDto assignmentDto, Long adminUserId) {
+        Project project = projectRepository.findById(assignmentDto.getProjectId())
+                .orElseThrow(() -> new RuntimeException("Project not found with id: " + assignmentDto.getProjectId()));
+
+        // Validate users exist, keeping the requested order
+        Set<Long> existingIds = new HashSet<>(userRepository.findExistingIds(assignmentDto.getUserIds()));
+        List<Long> validUserIds = new ArrayList<>();
+        for (Long userId : assignmentDto.getUserIds()) {
+            if (existingIds.contains(userId)) {
+                validUserIds.add(userId);
+            }
+        }
+
+        if (validUserIds.isEmpty()) {
+            throw new RuntimeException("No valid users found for assignment");
+        }
+
+        String fullDescription = assignmentDto.getDescription();
+        if (assignmentDto.getMessage() != null && !assignmentDto.getMessage().trim().isEmpty()) {
+            fullDescription = (fullDescription != null ? fullDescription + "\n\n" : "") +
+                            "Message: " + assignmentDto.getMessage();
+        }
+
+        List<ProjectTask> tasks = new ArrayList<>(validUserIds.size());
+        for (Long userId : validUserIds) {
+            ProjectTask task = new ProjectTask();
+            task.setProject(project);
+            task.setTitle(assignmentDto.getTitle());
+            task.setDescription(fullDescription);
+            task.setStatus(TaskStatus.TODO);
+            task.setPriority(assignmentDto.getPriority() != null ? assignmentDto.getPriority() :
+                           ProjectTask.TaskPriority.MEDIUM);
+            task.setAssignedToUserId(userId);
+            task.setStartDate(assignmentDto.getStartDate());
+            task.setDueDate(assignmentDto.getDueDate());
+            task.setEstimatedHours(assignmentDto.getEstimatedHours());
+            tasks.add(task);
+        }
+
+        // Ids are assigned here; the inserts themselves are flushed in batches at commit
+        List<ProjectTask> createdTasks = taskRepository.saveAll(tasks);
+
+        if (adminUserId != null) {
+            activityLogService.logTasksCreated(adminUserId, createdTasks);
+        }
+
+        return createdTasks;
+    }
+}
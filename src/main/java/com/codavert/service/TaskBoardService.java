@@ -0,0 +1,89 @@
+package com.codavert.service;
+
+import com.codavert.dto.TaskBoardDto;
+import com.codavert.entity.ProjectTask.TaskStatus;
+import com.codavert.repository.ProjectTaskRepository;
+import com.codavert.repository.ProjectTaskRepository.BoardRow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kanban board for a project. All status columns come from one windowed query that caps each
+ * column at the requested number of cards and carries the column's total count. Cards are
+ * ordered by id, and a column's cursor is an opaque encoding of its last card's id.
+ */
+@Service
+public class TaskBoardService {
+
+    @Autowired
+    private ProjectTaskRepository taskRepository;
+
+    public TaskBoardDto getBoard(Long projectId, int limit) {
+        // One extra row per column tells whether the column has more cards
+        List<BoardRow> rows = taskRepository.findBoardRows(projectId, null, 0L, limit + 1);
+
+        Map<TaskStatus, List<BoardRow>> byStatus = new EnumMap<>(TaskStatus.class);
+        for (BoardRow row : rows) {
+            byStatus.computeIfAbsent(TaskStatus.valueOf(row.getStatus()), s -> new ArrayList<>()).add(row);
+        }
+
+        List<TaskBoardDto.ColumnDto> columns = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            columns.add(toColumn(status, byStatus.getOrDefault(status, List.of()), limit, null));
+        }
+        return new TaskBoardDto(projectId, columns);
+    }
+
+    /**
+     * The next cards of one column. Throws IllegalArgumentException for a cursor this service did not issue.
+     */
+    public TaskBoardDto.ColumnDto getColumn(Long projectId, TaskStatus status, String cursor, int limit) {
+        long afterId = cursor == null || cursor.isEmpty() ? 0L : decodeCursor(cursor);
+        List<BoardRow> rows = taskRepository.findBoardRows(projectId, status.name(), afterId, limit + 1);
+
+        // The total comes with the rows; past the last card it has to be counted separately
+        Long totalCount = rows.isEmpty() && afterId > 0 ? taskRepository.countByProject_IdAndStatus(projectId, status) : null;
+        return toColumn(status, rows, limit, totalCount);
+    }
+
+    private TaskBoardDto.ColumnDto toColumn(TaskStatus status, List<BoardRow> rows, int limit, Long totalCount) {
+        boolean hasMore = rows.size() > limit;
+        List<BoardRow> page = hasMore ? rows.subList(0, limit) : rows;
+
+        List<TaskBoardDto.CardDto> cards = new ArrayList<>(page.size());
+        for (BoardRow row : page) {
+            TaskBoardDto.CardDto card = new TaskBoardDto.CardDto();
+            card.setId(row.getId());
+            card.setTitle(row.getTitle());
+            card.setPriority(row.getPriority());
+            card.setAssignedToUserId(row.getAssignedToUserId());
+            card.setDueDate(row.getDueDate());
+            card.setEstimatedHours(row.getEstimatedHours());
+            card.setActualHours(row.getActualHours());
+            cards.add(card);
+        }
+
+        long total = totalCount != null ? totalCount : (rows.isEmpty() ? 0 : rows.get(0).getColumnTotal());
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1).getId()) : null;
+        return new TaskBoardDto.ColumnDto(status.name(), total, cards, nextCursor, hasMore);
+    }
+
+    private String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.codavert.service;
+
+import com.codavert.dto.TaskChangesDto;
+import com.codavert.entity.Project;
+import com.codavert.entity.ProjectTask;
+import com.codavert.entity.TaskTombstone;
+import com.codavert.repository.ProjectTaskRepository;
+import com.codavert.repository.TaskTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delta sync for a project's tasks. Every task write and deletion takes the next number from a
+ * per-project counter on the projects row, in the writing transaction; the row lock it takes keeps
+ * writers in order, so once a number is committed every lower one is too. A change token is such a
+ * number: tasks and tombstones stamped after it, up to the counter read at the start of the call,
+ * are returned, and the counter becomes the next token. Deletions are kept as tombstones for a
+ * limited time.
+ */
+@Service
+public class TaskSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskSyncService.class);
+
+    @Autowired
+    private ProjectTaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${task-sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    /**
+     * Changes since the token, or the full task list when there is no token or its deletions have
+     * been purged. Throws IllegalArgumentException for a token this service did not issue.
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesDto getChanges(Long projectId, String since) {
+        Long sinceSeq = since == null || since.isEmpty() ? null : decodeToken(since);
+
+        List<Map<String, Object>> counters = jdbcTemplate.queryForList(
+                "SELECT task_change_seq, task_purged_seq FROM projects WHERE id = ?", projectId);
+        if (counters.isEmpty()) {
+            return new TaskChangesDto(List.of(), List.of(), encodeToken(0), true);
+        }
+        long current = ((Number) counters.get(0).get("task_change_seq")).longValue();
+        long purged = ((Number) counters.get(0).get("task_purged_seq")).longValue();
+        String nextToken = encodeToken(current);
+
+        // Deletions after the token are no longer all known, or the token is from another project, so the client has to start over
+        if (sinceSeq == null || sinceSeq < purged || sinceSeq > current) {
+            return new TaskChangesDto(taskRepository.findByProject_Id(projectId), List.of(), nextToken, true);
+        }
+
+        List<ProjectTask> changed = taskRepository
+                .findByProject_IdAndChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(projectId, sinceSeq, current);
+        List<Long> deleted = tombstoneRepository.findDeletedTaskIdsBetween(projectId, sinceSeq, current);
+        return new TaskChangesDto(changed, deleted, nextToken, false);
+    }
+
+    /**
+     * Stamps the task with the next change number of its project. Called from TaskChangeListener
+     * during the flush; the projects row stays locked until the writing transaction ends.
+     */
+    public void stampChange(ProjectTask task) {
+        if (task.getProject() != null && task.getProject().getId() != null) {
+            task.setChangeSeq(nextChangeSeq(task.getProject().getId()));
+        }
+    }
+
+    /**
+     * Deletes the task and leaves a tombstone for it. Returns the task's project, or null if there was no such task.
+     */
+    @Transactional
+    public Project deleteTask(Long taskId) {
+        return taskRepository.findById(taskId)
+                .map(task -> {
+                    Project project = task.getProject();
+                    taskRepository.delete(task);
+                    tombstoneRepository.save(new TaskTombstone(taskId, project.getId(), nextChangeSeq(project.getId())));
+                    return project;
+                })
+                .orElse(null);
+    }
+
+    @Scheduled(cron = "${task-sync.tombstone-purge-cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        // Tokens up to the newest purged deletion of a project can no longer be answered with a delta
+        jdbcTemplate.update(
+                "UPDATE projects SET task_purged_seq = (SELECT MAX(t.change_seq) FROM task_tombstones t " +
+                "WHERE t.project_id = projects.id AND t.deleted_at < ?) " +
+                "WHERE id IN (SELECT t.project_id FROM task_tombstones t WHERE t.deleted_at < ?)",
+                before, before);
+        int purged = tombstoneRepository.deleteOlderThan(before.toLocalDateTime());
+        if (purged > 0) {
+            logger.info("Purged {} task tombstones", purged);
+        }
+    }
+
+    private long nextChangeSeq(Long projectId) {
+        jdbcTemplate.update("UPDATE projects SET task_change_seq = task_change_seq + 1 WHERE id = ?", projectId);
+        return jdbcTemplate.queryForObject("SELECT task_change_seq FROM projects WHERE id = ?", Long.class, projectId);
+    }
+
+    private String encodeToken(long seq) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(seq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Null for a token from the earlier timestamp scheme, which gets a full resync
+    private Long decodeToken(String token) {
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid change token: " + token);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            try {
+                LocalDateTime.parse(value);
+                return null;
+            } catch (RuntimeException notTimestamp) {
+                throw new IllegalArgumentException("Invalid change token: " + token);
+            }
+        }
+    }
+}
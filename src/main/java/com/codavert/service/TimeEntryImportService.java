@@ -0,0 +1,553 @@
+package com.codavert.service;
+
+import com.codavert.dto.TimeEntryImportResultDto;
+import com.codavert.entity.TimeEntry;
+import com.codavert.repository.ProjectRepository;
+import com.codavert.repository.ProjectTaskRepository;
+import com.codavert.repository.ProjectTaskRepository.TaskProject;
+import com.codavert.repository.UserRepository;
+import com.codavert.service.TimesheetRollupService.Contribution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk import of time entries from CSV. The file is read record by record and handled in chunks:
+ * the user, project and task ids of a chunk are checked with one IN query each (through a small
+ * per-import cache, since imports tend to repeat the same few ids), then the valid rows are
+ * inserted with a JDBC batch and added to the timesheet rollup on one transaction. Rows that
+ * cannot be imported are reported by line number; the rest of the file is still imported.
+ *
+ * The first record is the header. Columns are matched by name, ignoring case:
+ * userId, projectId, description and startTime are required; taskId, endTime, isBillable,
+ * status and notes are optional.
+ */
+@Service
+public class TimeEntryImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeEntryImportService.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO time_entries (user_id, project_id, task_id, description, start_time, end_time, hours_logged, " +
+        "is_billable, status, notes, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] REQUIRED_COLUMNS = {"userId", "projectId", "description", "startTime"};
+
+    // Length of the description and notes columns
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    // Cached for ids that were looked up and do not exist
+    private static final Long MISSING = -1L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectTaskRepository taskRepository;
+
+    @Autowired
+    private TimesheetRollupService rollupService;
+
+    @Value("${time-entry-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${time-entry-import.reference-cache-size:10000}")
+    private int referenceCacheSize;
+
+    @Value("${time-entry-import.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * Imports the file. Throws IllegalArgumentException when the file is empty or its header lacks a required column.
+     */
+    public TimeEntryImportResultDto importCsv(MultipartFile file) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            return importCsv(reader);
+        }
+    }
+
+    private TimeEntryImportResultDto importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        CsvRecord header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.fields.size(); i++) {
+            String name = header.fields.get(i).trim().toLowerCase(Locale.ROOT);
+            // Spreadsheet exports often start with a byte order mark
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.put(name, i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+
+        ImportRun run = new ImportRun(columns, header.fields.size());
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+        CsvRecord record;
+        while ((record = csv.next()) != null) {
+            ImportRow row = run.parse(record);
+            if (row != null) {
+                chunk.add(row);
+            }
+            if (chunk.size() >= batchSize) {
+                run.importChunk(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            run.importChunk(chunk);
+        }
+
+        // Reference errors are found per chunk, after the parse errors of later rows
+        run.result.getErrors().sort(Comparator.comparingLong(TimeEntryImportResultDto.RowError::getRow));
+        logger.info("Time entry import finished: {} imported, {} failed", run.result.getImportedCount(), run.result.getFailedCount());
+        return run.result;
+    }
+
+    // State of one import: column positions, reference caches and the result so far
+    private final class ImportRun {
+        private final Map<String, Integer> columns;
+        private final int columnCount;
+        private final Map<Long, Long> users = new LruCache<>(referenceCacheSize);
+        private final Map<Long, Long> projects = new LruCache<>(referenceCacheSize);
+        // Task id to the id of its project
+        private final Map<Long, Long> tasks = new LruCache<>(referenceCacheSize);
+        private final TimeEntryImportResultDto result = new TimeEntryImportResultDto();
+
+        private ImportRun(Map<String, Integer> columns, int columnCount) {
+            this.columns = columns;
+            this.columnCount = columnCount;
+        }
+
+        // The row's values, or null after reporting why it cannot be imported
+        private ImportRow parse(CsvRecord record) {
+            if (record.error != null) {
+                fail(record.line, record.error);
+                return null;
+            }
+            if (record.fields.size() != columnCount) {
+                fail(record.line, "Expected " + columnCount + " columns but found " + record.fields.size());
+                return null;
+            }
+            try {
+                ImportRow row = new ImportRow(record.line);
+                row.userId = parseId(value(record, "userid"), "userId", true);
+                row.projectId = parseId(value(record, "projectid"), "projectId", true);
+                row.taskId = parseId(value(record, "taskid"), "taskId", false);
+                row.description = text(value(record, "description"), "description", true);
+                row.startTime = parseTime(value(record, "starttime"), "startTime", true);
+                row.endTime = parseTime(value(record, "endtime"), "endTime", false);
+                if (row.endTime != null && row.endTime.isBefore(row.startTime)) {
+                    throw new IllegalArgumentException("endTime is before startTime");
+                }
+                row.billable = parseBillable(value(record, "isbillable"));
+                row.status = parseStatus(value(record, "status"));
+                row.notes = text(value(record, "notes"), "notes", false);
+                // Same as TimeEntry's own calculation
+                row.hours = row.endTime != null ? Duration.between(row.startTime, row.endTime).toMinutes() / 60.0 : null;
+                return row;
+            } catch (IllegalArgumentException e) {
+                fail(record.line, e.getMessage());
+                return null;
+            }
+        }
+
+        private void importChunk(List<ImportRow> chunk) {
+            resolve(chunk, users, row -> row.userId, ids -> toIdMap(userRepository.findExistingIds(ids)));
+            resolve(chunk, projects, row -> row.projectId, ids -> toIdMap(projectRepository.findExistingIds(ids)));
+            resolve(chunk, tasks, row -> row.taskId, ids -> {
+                Map<Long, Long> found = new HashMap<>();
+                for (TaskProject task : taskRepository.findTaskProjects(ids)) {
+                    found.put(task.getId(), task.getProjectId());
+                }
+                return found;
+            });
+
+            List<ImportRow> valid = new ArrayList<>(chunk.size());
+            for (ImportRow row : chunk) {
+                String error = checkReferences(row);
+                if (error != null) {
+                    fail(row.line, error);
+                } else {
+                    valid.add(row);
+                }
+            }
+            if (valid.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(valid));
+                result.setImportedCount(result.getImportedCount() + valid.size());
+            } catch (RuntimeException e) {
+                logger.warn("Could not save time entry import batch starting at line {}: {}", valid.get(0).line, e.getMessage());
+                for (ImportRow row : valid) {
+                    fail(row.line, "Could not be saved with its batch: " + e.getMessage());
+                }
+            }
+        }
+
+        private String checkReferences(ImportRow row) {
+            if (MISSING.equals(users.get(row.userId))) {
+                return "User not found with id: " + row.userId;
+            }
+            if (MISSING.equals(projects.get(row.projectId))) {
+                return "Project not found with id: " + row.projectId;
+            }
+            if (row.taskId != null) {
+                Long taskProjectId = tasks.get(row.taskId);
+                if (MISSING.equals(taskProjectId)) {
+                    return "Task not found with id: " + row.taskId;
+                }
+                if (!row.projectId.equals(taskProjectId)) {
+                    return "Task " + row.taskId + " does not belong to project " + row.projectId;
+                }
+            }
+            return null;
+        }
+
+        private String value(CsvRecord record, String column) {
+            Integer index = columns.get(column);
+            if (index == null) {
+                return null;
+            }
+            String value = record.fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private void fail(long line, String message) {
+            result.setFailedCount(result.getFailedCount() + 1);
+            if (result.getErrors().size() < maxErrors) {
+                result.getErrors().add(new TimeEntryImportResultDto.RowError(line, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+
+    /**
+     * Looks up the chunk's ids that are not cached yet with one query and caches the answer, MISSING
+     * for ids that do not exist. Users and projects cache the id itself; tasks cache their project id.
+     */
+    private void resolve(List<ImportRow> chunk, Map<Long, Long> cache, Function<ImportRow, Long> idOf,
+                         Function<Set<Long>, Map<Long, Long>> lookup) {
+        Set<Long> unknown = new LinkedHashSet<>();
+        for (ImportRow row : chunk) {
+            Long id = idOf.apply(row);
+            if (id != null && cache.get(id) == null) {
+                unknown.add(id);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> found = lookup.apply(unknown);
+        for (Long id : unknown) {
+            cache.put(id, found.getOrDefault(id, MISSING));
+        }
+    }
+
+    private static Map<Long, Long> toIdMap(List<Long> ids) {
+        Map<Long, Long> map = new HashMap<>();
+        for (Long id : ids) {
+            map.put(id, id);
+        }
+        return map;
+    }
+
+    // Bypasses the entity, so the rollup is updated here rather than by TimesheetRollupListener
+    private void insert(List<ImportRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ImportRow row = rows.get(i);
+                ps.setLong(1, row.userId);
+                ps.setLong(2, row.projectId);
+                if (row.taskId != null) {
+                    ps.setLong(3, row.taskId);
+                } else {
+                    ps.setNull(3, Types.BIGINT);
+                }
+                ps.setString(4, row.description);
+                ps.setTimestamp(5, Timestamp.valueOf(row.startTime));
+                ps.setTimestamp(6, row.endTime != null ? Timestamp.valueOf(row.endTime) : null);
+                if (row.hours != null) {
+                    ps.setDouble(7, row.hours);
+                } else {
+                    ps.setNull(7, Types.DOUBLE);
+                }
+                ps.setBoolean(8, row.billable);
+                ps.setString(9, row.status.name());
+                ps.setString(10, row.notes);
+                ps.setTimestamp(11, now);
+                ps.setTimestamp(12, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+
+        List<Contribution> contributions = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            contributions.add(Contribution.of(row.userId, row.projectId, row.taskId, row.startTime,
+                row.status, row.billable, row.hours));
+        }
+        rollupService.addAll(contributions);
+    }
+
+    private static Long parseId(String value, String column, boolean required) {
+        if (value == null) {
+            if (required) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static String text(String value, String column, boolean required) {
+        if (value == null && required) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value != null && value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(column + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    // ISO date-time, also with a space instead of the T
+    private static LocalDateTime parseTime(String value, String column, boolean required) {
+        if (value == null) {
+            if (required) {
+                throw new IllegalArgumentException(column + " is required");
+            }
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value.length() > 10 && value.charAt(10) == ' '
+                ? value.substring(0, 10) + 'T' + value.substring(11) : value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static boolean parseBillable(String value) {
+        if (value == null) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid isBillable: " + value);
+    }
+
+    private static TimeEntry.EntryStatus parseStatus(String value) {
+        if (value == null) {
+            return TimeEntry.EntryStatus.DRAFT;
+        }
+        try {
+            return TimeEntry.EntryStatus.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + value);
+        }
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private Long userId;
+        private Long projectId;
+        private Long taskId;
+        private String description;
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private Double hours;
+        private boolean billable;
+        private TimeEntry.EntryStatus status;
+        private String notes;
+
+        private ImportRow(long line) {
+            this.line = line;
+        }
+    }
+
+    private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        private LruCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+    // One CSV record and the line it starts on; error is set for a record that could not be read
+    private static final class CsvRecord {
+        private final long line;
+        private final List<String> fields;
+        private final String error;
+
+        private CsvRecord(long line, List<String> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Reads RFC 4180 style CSV one record at a time: comma separated, fields optionally in double
+     * quotes, quotes doubled inside quoted fields, which may span lines. Blank lines are skipped.
+     */
+    private static final class CsvReader {
+        private final Reader reader;
+        private long line = 1;
+        private int pushedBack = -1;
+
+        private CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        private CsvRecord next() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') {
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+
+            long startLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean afterQuote = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        return new CsvRecord(startLine, fields, "Unterminated quoted field");
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            afterQuote = true;
+                            c = following;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    afterQuote = false;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    fields.add(field.toString());
+                    return new CsvRecord(startLine, fields, null);
+                } else if (c == '"' && field.length() == 0 && !afterQuote) {
+                    quoted = true;
+                } else if (afterQuote) {
+                    // Skip the rest of a malformed record
+                    skipLine();
+                    return new CsvRecord(startLine, fields, "Unexpected character after a quoted field");
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private void skipLine() throws IOException {
+            int c;
+            do {
+                c = read();
+            } while (c != '\n' && c != -1);
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (pushedBack != -1) {
+                c = pushedBack;
+                pushedBack = -1;
+            } else {
+                c = reader.read();
+            }
+            if (c == '\n') {
+                line++;
+            }
+            return c;
+        }
+
+        private void unread(int c) {
+            if (c == '\n') {
+                line--;
+            }
+            pushedBack = c;
+        }
+    }
+}
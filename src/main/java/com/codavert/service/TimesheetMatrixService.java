@@ -0,0 +1,134 @@
+package com.codavert.service;
+
+import com.codavert.dto.TimesheetMatrixDto;
+import com.codavert.entity.Project;
+import com.codavert.entity.TimeEntry;
+import com.codavert.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weekly timesheet grid: hours per user and project for each day of a week. The cells come from
+ * one grouped query over the daily timesheet rollup, ordered so that the cells of a grid row are
+ * adjacent; they are written straight into that row's array of seven days while the result set
+ * is read, and row and day totals are summed on the way. Rejected entries are left out.
+ */
+@Service
+public class TimesheetMatrixService {
+
+    private static final int DAYS = 7;
+
+    private static final String SELECT_SQL =
+        "SELECT r.user_id, u.first_name, u.last_name, r.project_id, p.title, r.work_date, SUM(r.hours) AS hours " +
+        "FROM timesheet_daily_rollups r " +
+        "JOIN users u ON u.id = r.user_id " +
+        "JOIN projects p ON p.id = r.project_id " +
+        "WHERE r.work_date >= ? AND r.work_date <= ? AND r.status <> '" + TimeEntry.EntryStatus.REJECTED.name() + "'";
+
+    private static final String GROUP_SQL =
+        " GROUP BY r.user_id, u.first_name, u.last_name, r.project_id, p.title, r.work_date " +
+        "ORDER BY u.last_name, u.first_name, r.user_id, p.title, r.project_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    /**
+     * The grid for the week that contains the given day, optionally limited to one user and/or one project.
+     * Unless privileged (admin or staff), the caller sees only their own hours, and only on their own
+     * projects when a project is given; asking for another user or project throws an "Unauthorized" RuntimeException.
+     */
+    public TimesheetMatrixDto getWeek(LocalDate day, Long userId, Long projectId, Long callerId, boolean privileged) {
+        if (!privileged) {
+            if (userId != null && !userId.equals(callerId)) {
+                throw new RuntimeException("Unauthorized: cannot view another user's timesheet");
+            }
+            if (projectId != null) {
+                Project project = projectRepository.findById(projectId)
+                    .orElseThrow(() -> new RuntimeException("Project not found with id: " + projectId));
+                if (!project.getUser().getId().equals(callerId)) {
+                    throw new RuntimeException("Unauthorized: Project does not belong to user");
+                }
+            }
+            userId = callerId;
+        }
+
+        LocalDate weekStart = day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate weekEnd = weekStart.plusDays(DAYS - 1);
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>();
+        args.add(Date.valueOf(weekStart));
+        args.add(Date.valueOf(weekEnd));
+        if (userId != null) {
+            sql.append(" AND r.user_id = ?");
+            args.add(userId);
+        }
+        if (projectId != null) {
+            sql.append(" AND r.project_id = ?");
+            args.add(projectId);
+        }
+        sql.append(GROUP_SQL);
+
+        List<TimesheetMatrixDto.RowDto> rows = new ArrayList<>();
+        double[] dayTotals = new double[DAYS];
+        double[] total = new double[1];
+        jdbcTemplate.query(sql.toString(), (RowCallbackHandler) rs -> {
+            long rowUserId = rs.getLong(1);
+            long rowProjectId = rs.getLong(4);
+            TimesheetMatrixDto.RowDto row = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            if (row == null || row.getUserId() != rowUserId || row.getProjectId() != rowProjectId) {
+                row = new TimesheetMatrixDto.RowDto(rowUserId, rs.getString(2), rs.getString(3),
+                    rowProjectId, rs.getString(5), new double[DAYS]);
+                rows.add(row);
+            }
+            int dayIndex = (int) ChronoUnit.DAYS.between(weekStart, rs.getDate(6).toLocalDate());
+            double hours = rs.getDouble(7);
+            row.getHours()[dayIndex] += hours;
+            row.setTotalHours(row.getTotalHours() + hours);
+            dayTotals[dayIndex] += hours;
+            total[0] += hours;
+        }, args.toArray());
+
+        return new TimesheetMatrixDto(weekStart, weekEnd, rows, dayTotals, total[0]);
+    }
+
+    /**
+     * Day in the requested week: an ISO week such as 2026-W42, or any date within the week.
+     * Null means the current week. Throws IllegalArgumentException for anything else.
+     */
+    public static LocalDate parseWeek(String week) {
+        if (week == null || week.isEmpty()) {
+            return LocalDate.now();
+        }
+        try {
+            int separator = week.toUpperCase().indexOf("-W");
+            if (separator > 0) {
+                int year = Integer.parseInt(week.substring(0, separator));
+                int weekNumber = Integer.parseInt(week.substring(separator + 2));
+                LocalDate inYear = LocalDate.of(year, 6, 1);
+                if (weekNumber < 1 || weekNumber > inYear.range(IsoFields.WEEK_OF_WEEK_BASED_YEAR).getMaximum()) {
+                    throw new IllegalArgumentException("Invalid week: " + week);
+                }
+                return inYear.with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, weekNumber);
+            }
+            return LocalDate.parse(week);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid week: " + week);
+        }
+    }
+}
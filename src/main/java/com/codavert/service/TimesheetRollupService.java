@@ -0,0 +1,336 @@
+package com.codavert.service;
+
+import com.codavert.config.DatabasePlatform;
+import com.codavert.entity.TimeEntry;
+import com.codavert.entity.TimesheetRollup;
+import com.codavert.repository.TimesheetRollupRepository;
+import com.codavert.repository.TimesheetRollupRepository.TaskStatusTotals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps timesheet_daily_rollups in step with time_entries. Every write of a time entry moves its
+ * contribution (hours and a count of one) between rollup rows on the same transaction, so time
+ * statistics read a handful of rollup rows instead of scanning the entry history.
+ */
+@Service
+public class TimesheetRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimesheetRollupService.class);
+
+    private static final String KEY_COLUMNS = "user_id, project_id, task_id, work_date, status, billable";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO timesheet_daily_rollups (" + KEY_COLUMNS + ", hours, entry_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (" + KEY_COLUMNS + ") DO UPDATE SET " +
+        "hours = timesheet_daily_rollups.hours + EXCLUDED.hours, " +
+        "entry_count = timesheet_daily_rollups.entry_count + EXCLUDED.entry_count";
+
+    // migration_markers row written once the rollup has been built from the existing entries
+    private static final String BUILT_MARKER = "timesheet-rollup-built";
+
+    private static final String KEY_WHERE =
+        "user_id = ? AND project_id = ? AND task_id = ? AND work_date = ? AND status = ? AND billable = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatabasePlatform databasePlatform;
+
+    @Autowired
+    private TimesheetRollupRepository rollupRepository;
+
+    // What each loaded entry contributed at load time, to move it out of its old bucket on update or delete.
+    // Keyed by entity instance; entries drop out once their persistence context is gone.
+    private final Map<TimeEntry, Contribution> loaded = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * What a time entry adds to the rollup, or null for an entry that is not complete enough to count.
+     */
+    public Contribution contributionOf(TimeEntry entry) {
+        if (entry.getUser() == null || entry.getProject() == null || entry.getStartTime() == null || entry.getStatus() == null) {
+            return null;
+        }
+        return Contribution.of(
+            entry.getUser().getId(),
+            entry.getProject().getId(),
+            entry.getTask() != null ? entry.getTask().getId() : null,
+            entry.getStartTime(),
+            entry.getStatus(),
+            entry.getIsBillable(),
+            entry.getHoursLogged());
+    }
+
+    public void entryLoaded(TimeEntry entry) {
+        loaded.put(entry, contributionOf(entry));
+    }
+
+    // The entry callbacks below run during the flush, on the transaction that writes the entry
+    public void entryPersisted(TimeEntry entry) {
+        Contribution contribution = contributionOf(entry);
+        add(contribution);
+        loaded.put(entry, contribution);
+    }
+
+    public void entryUpdated(TimeEntry entry) {
+        if (!loaded.containsKey(entry)) {
+            logger.warn("Time entry {} was updated without being loaded first; rollup not adjusted", entry.getId());
+            return;
+        }
+        Contribution before = loaded.get(entry);
+        Contribution after = contributionOf(entry);
+        if (before == null ? after != null : !before.equals(after)) {
+            subtract(before);
+            add(after);
+        }
+        loaded.put(entry, after);
+    }
+
+    public void entryRemoved(TimeEntry entry) {
+        Contribution before = loaded.containsKey(entry) ? loaded.remove(entry) : contributionOf(entry);
+        subtract(before);
+    }
+
+    // Must run on the transaction that writes the time entry
+    public void add(Contribution contribution) {
+        if (contribution != null) {
+            apply(contribution, contribution.hours, 1);
+        }
+    }
+
+    // For entries written in bulk: one rollup update per bucket. Must run on the transaction that writes the entries.
+    public void addAll(List<Contribution> contributions) {
+        Map<List<Object>, Contribution> buckets = new LinkedHashMap<>();
+        Map<List<Object>, double[]> totals = new LinkedHashMap<>();
+        for (Contribution contribution : contributions) {
+            List<Object> key = Arrays.asList(keyArgs(contribution));
+            buckets.putIfAbsent(key, contribution);
+            double[] total = totals.computeIfAbsent(key, k -> new double[2]);
+            total[0] += contribution.hours;
+            total[1]++;
+        }
+        for (Map.Entry<List<Object>, Contribution> bucket : buckets.entrySet()) {
+            double[] total = totals.get(bucket.getKey());
+            apply(bucket.getValue(), total[0], (long) total[1]);
+        }
+    }
+
+    // Must run on the transaction that writes the time entry
+    public void subtract(Contribution contribution) {
+        if (contribution != null) {
+            apply(contribution, -contribution.hours, -1);
+            // Nothing left in that bucket
+            jdbcTemplate.update("DELETE FROM timesheet_daily_rollups WHERE " + KEY_WHERE + " AND entry_count <= 0",
+                keyArgs(contribution));
+        }
+    }
+
+    public Map<String, Object> getProjectStatistics(Long projectId) {
+        TimeTotals project = new TimeTotals();
+        for (TaskStatusTotals row : rollupRepository.sumByProjectGroupedByTaskAndStatus(projectId)) {
+            project.add(row);
+        }
+        return project.toMap();
+    }
+
+    /**
+     * Project totals plus the same figures for every task that has time logged, from one grouped query.
+     * Entries without a task are listed with a null taskId.
+     */
+    public Map<String, Object> getProjectStatisticsByTask(Long projectId) {
+        TimeTotals project = new TimeTotals();
+        Map<Long, TimeTotals> tasks = new LinkedHashMap<>();
+        for (TaskStatusTotals row : rollupRepository.sumByProjectGroupedByTaskAndStatus(projectId)) {
+            project.add(row);
+            tasks.computeIfAbsent(row.getTaskId(), id -> new TimeTotals()).add(row);
+        }
+
+        List<Map<String, Object>> taskStats = new ArrayList<>(tasks.size());
+        for (Map.Entry<Long, TimeTotals> task : tasks.entrySet()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("taskId", task.getKey() == TimesheetRollup.NO_TASK ? null : task.getKey());
+            stats.putAll(task.getValue().toMap());
+            taskStats.add(stats);
+        }
+
+        Map<String, Object> stats = project.toMap();
+        stats.put("tasks", taskStats);
+        return stats;
+    }
+
+    public double getApprovedHoursForTask(Long taskId) {
+        Double hours = rollupRepository.sumHoursByTaskIdAndStatus(taskId, TimeEntry.EntryStatus.APPROVED);
+        return hours != null ? hours : 0.0;
+    }
+
+    /**
+     * Rebuilds the rollup from time_entries unless that was done before, e.g. on the first start
+     * after it was introduced. Whatever rows the rollup already has are replaced, and on PostgreSQL
+     * time_entries is locked against writes for the duration, so entries written meanwhile (by
+     * another instance) are counted exactly once. Records the build in migration_markers.
+     */
+    @Transactional
+    public void buildOnce() {
+        if (isBuilt()) {
+            return;
+        }
+        if (databasePlatform.isPostgres()) {
+            // Blocks entry writes, whose rollup updates share their transaction, and other instances building too
+            jdbcTemplate.execute("LOCK TABLE time_entries IN SHARE ROW EXCLUSIVE MODE");
+            if (isBuilt()) {
+                return;
+            }
+        }
+        jdbcTemplate.update("DELETE FROM timesheet_daily_rollups");
+        int rows = jdbcTemplate.update(
+            "INSERT INTO timesheet_daily_rollups (" + KEY_COLUMNS + ", hours, entry_count) " +
+            "SELECT user_id, project_id, COALESCE(task_id, " + TimesheetRollup.NO_TASK + "), CAST(start_time AS DATE), status, " +
+            "COALESCE(is_billable, TRUE), COALESCE(SUM(hours_logged), 0), COUNT(*) FROM time_entries " +
+            "GROUP BY user_id, project_id, COALESCE(task_id, " + TimesheetRollup.NO_TASK + "), CAST(start_time AS DATE), " +
+            "status, COALESCE(is_billable, TRUE)");
+        jdbcTemplate.update("INSERT INTO migration_markers (name, completed_at) VALUES (?, ?)",
+            BUILT_MARKER, Timestamp.valueOf(LocalDateTime.now()));
+        logger.info("Built {} timesheet rollup rows from time entries", rows);
+    }
+
+    private boolean isBuilt() {
+        Long markers = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM migration_markers WHERE name = ?", Long.class, BUILT_MARKER);
+        return markers != null && markers > 0;
+    }
+
+    private void apply(Contribution contribution, double hours, long count) {
+        if (databasePlatform.isPostgres()) {
+            jdbcTemplate.update(UPSERT_SQL, contribution.userId, contribution.projectId, contribution.taskId,
+                Date.valueOf(contribution.workDate), contribution.status.name(), contribution.billable, hours, count);
+            return;
+        }
+
+        // Without ON CONFLICT (H2 in local runs): update the bucket, create it if it is not there yet
+        Object[] args = new Object[8];
+        args[0] = hours;
+        args[1] = count;
+        System.arraycopy(keyArgs(contribution), 0, args, 2, 6);
+        int updated = jdbcTemplate.update(
+            "UPDATE timesheet_daily_rollups SET hours = hours + ?, entry_count = entry_count + ? WHERE " + KEY_WHERE, args);
+        if (updated == 0) {
+            jdbcTemplate.update(
+                "INSERT INTO timesheet_daily_rollups (" + KEY_COLUMNS + ", hours, entry_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                contribution.userId, contribution.projectId, contribution.taskId,
+                Date.valueOf(contribution.workDate), contribution.status.name(), contribution.billable, hours, count);
+        }
+    }
+
+    private Object[] keyArgs(Contribution contribution) {
+        return new Object[] {contribution.userId, contribution.projectId, contribution.taskId,
+            Date.valueOf(contribution.workDate), contribution.status.name(), contribution.billable};
+    }
+
+    // Sums of rollup rows in the shape of the time statistics responses
+    private static final class TimeTotals {
+        private double approvedHours;
+        private long draftEntries;
+        private long submittedEntries;
+        private long approvedEntries;
+
+        private void add(TaskStatusTotals row) {
+            long count = row.getEntryCount() != null ? row.getEntryCount() : 0L;
+            switch (row.getStatus()) {
+                case DRAFT -> draftEntries += count;
+                case SUBMITTED -> submittedEntries += count;
+                case APPROVED -> {
+                    approvedEntries += count;
+                    approvedHours += row.getHours() != null ? row.getHours() : 0.0;
+                }
+                default -> {
+                    // Rejected entries are not part of the statistics
+                }
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("totalApprovedHours", approvedHours);
+            stats.put("draftEntries", draftEntries);
+            stats.put("submittedEntries", submittedEntries);
+            stats.put("approvedEntries", approvedEntries);
+            stats.put("totalEntries", draftEntries + submittedEntries + approvedEntries);
+            return stats;
+        }
+    }
+
+    /**
+     * One time entry's share of the rollup: the bucket it falls into and its hours.
+     */
+    public static final class Contribution {
+        private final Long userId;
+        private final Long projectId;
+        private final Long taskId;
+        private final LocalDate workDate;
+        private final TimeEntry.EntryStatus status;
+        private final boolean billable;
+        private final double hours;
+
+        /**
+         * Contribution of an entry given by its column values; a null task, billable flag or hours
+         * are treated the way the rollup stores them.
+         */
+        public static Contribution of(Long userId, Long projectId, Long taskId, LocalDateTime startTime,
+                                      TimeEntry.EntryStatus status, Boolean billable, Double hours) {
+            return new Contribution(userId, projectId, taskId != null ? taskId : TimesheetRollup.NO_TASK,
+                startTime.toLocalDate(), status, billable == null || billable, hours != null ? hours : 0.0);
+        }
+
+        private Contribution(Long userId, Long projectId, Long taskId, LocalDate workDate,
+                             TimeEntry.EntryStatus status, boolean billable, double hours) {
+            this.userId = userId;
+            this.projectId = projectId;
+            this.taskId = taskId;
+            this.workDate = workDate;
+            this.status = status;
+            this.billable = billable;
+            this.hours = hours;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Contribution)) {
+                return false;
+            }
+            Contribution other = (Contribution) o;
+            return billable == other.billable
+                && Double.compare(hours, other.hours) == 0
+                && Objects.equals(userId, other.userId)
+                && Objects.equals(projectId, other.projectId)
+                && Objects.equals(taskId, other.taskId)
+                && Objects.equals(workDate, other.workDate)
+                && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, projectId, taskId, workDate, status, billable, hours);
+        }
+    }
+}